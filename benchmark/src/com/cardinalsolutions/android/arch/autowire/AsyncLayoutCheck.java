@@ -0,0 +1,202 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Checks async layout inflation in {@link BaseAutowireActivity}, with the stand-in main {@code Looper} drained by
+ * this thread. The layout must be inflated and autowired on the background thread and attached on the main thread,
+ * without using the Activity's shared {@code LayoutInflater}. A layout with a view that needs a {@code Looper}, or
+ * that throws an {@code Error} off the main thread, must fall back to the main thread. The saved view hierarchy
+ * state must be restored once the layout is attached, and a destroyed Activity must not be called back.
+ */
+public class AsyncLayoutCheck extends Check {
+
+	static final int LAYOUT_ID = 0x7f030003;
+	static final int LOOPER_LAYOUT_ID = 0x7f030004;
+	static final int ERROR_LAYOUT_ID = 0x7f030008;
+	static final int BLOCKING_LAYOUT_ID = 0x7f030009;
+	static final int TITLE_ID = 0x7f0a0004;
+	static final long TIMEOUT_MILLIS = 5000;
+
+	/** Remembers the thread it was inflated on */
+	static class ThreadView extends View {
+		final String inflatedOn = Thread.currentThread().getName();
+
+		ThreadView(Context context){
+			super(context);
+		}
+	}
+
+	/** Stands in for a view that runs out of memory decoding a drawable, off the main thread only */
+	static class ErrorView extends ThreadView {
+		ErrorView(Context context){
+			super(context);
+			if(Looper.myLooper() == null){
+				throw new OutOfMemoryError("Stand-in drawable");
+			}
+		}
+	}
+
+	/** Stands in for a view that creates a Handler in its constructor */
+	static class LooperView extends ThreadView {
+		LooperView(Context context){
+			super(context);
+			if(Looper.myLooper() == null){
+				throw new RuntimeException("Can't create handler inside thread that has not called Looper.prepare()");
+			}
+		}
+	}
+
+	@AndroidLayout(LAYOUT_ID)
+	public static class AsyncActivity extends BaseAutowireActivity {
+
+		@AndroidView(TITLE_ID)
+		ThreadView title;
+
+		int afterAutowireCalls;
+		View titleInAfterAutowire;
+
+		@Override
+		protected boolean isAsyncLayoutEnabled(){
+			return true;
+		}
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+			afterAutowireCalls++;
+			titleInAfterAutowire = findViewById(TITLE_ID);
+		}
+	}
+
+	@AndroidLayout(LOOPER_LAYOUT_ID)
+	public static class LooperActivity extends AsyncActivity {
+	}
+
+	@AndroidLayout(ERROR_LAYOUT_ID)
+	public static class ErrorActivity extends AsyncActivity {
+	}
+
+	@AndroidLayout(BLOCKING_LAYOUT_ID)
+	public static class BlockingActivity extends AsyncActivity {
+	}
+
+	public AsyncLayoutCheck(){
+		super("Async layout inflation");
+	}
+
+	@Override
+	protected void run() throws Exception{
+		Looper.prepareMainLooper();
+		LayoutInflater.register(LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				ViewGroup root = new ViewGroup(context);
+				View title = new ThreadView(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				return root;
+			}
+		});
+		LayoutInflater.register(LOOPER_LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				ViewGroup root = new ViewGroup(context);
+				View title = new LooperView(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				return root;
+			}
+		});
+		LayoutInflater.register(ERROR_LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				ViewGroup root = new ViewGroup(context);
+				View title = new ErrorView(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				return root;
+			}
+		});
+		final CountDownLatch blockingStarted = new CountDownLatch(1);
+		final CountDownLatch blockingReleased = new CountDownLatch(1);
+		LayoutInflater.register(BLOCKING_LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				blockingStarted.countDown();
+				try {
+					blockingReleased.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+				ViewGroup root = new ViewGroup(context);
+				View title = new ThreadView(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				return root;
+			}
+		});
+		String mainThread = Thread.currentThread().getName();
+
+		AsyncActivity activity = new AsyncActivity();
+		activity.onCreate(null);
+		expect("afterAutowire is not called in onCreate", activity.afterAutowireCalls == 0);
+		expect("the layout is posted to the main thread", Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS));
+		expect("afterAutowire is called once", activity.afterAutowireCalls == 1);
+		expect("the view is autowired", activity.title != null);
+		expect("the layout is attached before afterAutowire", activity.titleInAfterAutowire == activity.title);
+		expect("the layout is inflated off the main thread", activity.title != null && !activity.title.inflatedOn.equals(mainThread));
+
+		LooperActivity looperActivity = new LooperActivity();
+		looperActivity.onCreate(null);
+		expect("the fallback is posted to the main thread", Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS));
+		expect("afterAutowire is called once after the fallback", looperActivity.afterAutowireCalls == 1);
+		expect("the view is autowired by the fallback", looperActivity.title != null);
+		expect("the fallback inflates on the main thread", looperActivity.title != null && looperActivity.title.inflatedOn.equals(mainThread));
+
+		ErrorActivity errorActivity = new ErrorActivity();
+		errorActivity.onCreate(null);
+		expect("an Error falls back to the main thread", Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS)
+				&& errorActivity.title != null && errorActivity.title.inflatedOn.equals(mainThread));
+
+		BlockingActivity blockingActivity = new BlockingActivity();
+		blockingActivity.onCreate(null);
+		boolean sharedInflaterFree;
+		try {
+			blockingStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			LayoutInflater.from(blockingActivity).inflate(LAYOUT_ID, null, false);
+			sharedInflaterFree = true;
+		} catch (IllegalStateException e){
+			sharedInflaterFree = false;
+		} finally {
+			blockingReleased.countDown();
+		}
+		expect("the Activity's inflater is not used off the main thread", sharedInflaterFree);
+		expect("the blocked layout is attached", Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS)
+				&& blockingActivity.title != null);
+
+		Bundle savedInstanceState = new Bundle();
+		Bundle hierarchyState = new Bundle();
+		savedInstanceState.putBundle("android:viewHierarchyState", hierarchyState);
+		AsyncActivity restoredActivity = new AsyncActivity();
+		restoredActivity.onCreate(savedInstanceState);
+		expect("view state is not restored before the layout is attached",
+				restoredActivity.getWindow().getRestoredHierarchyStateStandIn() == null);
+		Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS);
+		expect("view state is restored once the layout is attached",
+				restoredActivity.getWindow().getRestoredHierarchyStateStandIn() == hierarchyState);
+
+		AsyncActivity destroyedActivity = new AsyncActivity();
+		destroyedActivity.onCreate(null);
+		destroyedActivity.onDestroy();
+		Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS);
+		expect("a destroyed Activity is not called back", destroyedActivity.afterAutowireCalls == 0);
+	}
+}
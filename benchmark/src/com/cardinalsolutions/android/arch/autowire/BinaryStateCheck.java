@@ -0,0 +1,92 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.os.Parcel;
+
+/**
+ * Checks binary Bundle state against per-field entries, for an Activity with 36 {@link SaveInstance} fields in two
+ * classes. The fields must survive a round trip with binary state, Serializable fields must keep their own entries,
+ * state saved without binary state must still restore, and the binary Bundle must be smaller when parceled with the
+ * stand-in {@code Parcel}.
+ */
+public class BinaryStateCheck extends Check {
+
+	public static class BaseStateActivity extends Activity {
+		@SaveInstance int b0; @SaveInstance int b1; @SaveInstance int b2; @SaveInstance int b3;
+		@SaveInstance long b4; @SaveInstance long b5; @SaveInstance boolean b6; @SaveInstance boolean b7;
+		@SaveInstance String b8; @SaveInstance String b9; @SaveInstance double b10; @SaveInstance float b11;
+		@SaveInstance char b12; @SaveInstance short b13; @SaveInstance byte b14; @SaveInstance Integer b15;
+	}
+
+	public static class StateActivity extends BaseStateActivity {
+		@SaveInstance int s0; @SaveInstance int s1; @SaveInstance int s2; @SaveInstance int s3;
+		@SaveInstance int s4; @SaveInstance int s5; @SaveInstance long s6; @SaveInstance long s7;
+		@SaveInstance boolean s8; @SaveInstance boolean s9; @SaveInstance String s10; @SaveInstance String s11;
+		@SaveInstance String s12; @SaveInstance String s13; @SaveInstance int[] s14; @SaveInstance String[] s15;
+		@SaveInstance byte[] s16; @SaveInstance double[] s17; @SaveInstance Long s18;
+		@SaveInstance ArrayList<String> s19;
+
+		void fill(){
+			b0 = 1; b1 = -2; b2 = Integer.MAX_VALUE; b3 = 4; b4 = Long.MIN_VALUE; b5 = 6; b6 = true; b7 = false;
+			b8 = "base"; b9 = null; b10 = Math.PI; b11 = 1.5f; b12 = '\u00e9'; b13 = -13; b14 = 14; b15 = 15;
+			s0 = 100; s1 = 101; s2 = 102; s3 = 103; s4 = 104; s5 = 105; s6 = 106; s7 = 107; s8 = true; s9 = true;
+			s10 = "selected_tab"; s11 = ""; s12 = "query \u65e5\u672c"; s13 = null; s14 = new int[]{1, 2, 3};
+			s15 = new String[]{"a", null, "c"}; s16 = new byte[]{1, 2, 3, 4, 5}; s17 = new double[]{0.5}; s18 = null;
+			s19 = new ArrayList<String>(Arrays.asList("x", "y"));
+		}
+
+		String describe(){
+			return Arrays.asList(b0, b1, b2, b3, b4, b5, b6, b7, b8, b9, b10, b11, b12, b13, b14, b15,
+					s0, s1, s2, s3, s4, s5, s6, s7, s8, s9, s10, s11, s12, s13, Arrays.toString(s14), Arrays.toString(s15),
+					Arrays.toString(s16), Arrays.toString(s17), s18, s19).toString();
+		}
+	}
+
+	public BinaryStateCheck(){
+		super("Binary state");
+	}
+
+	@Override
+	protected void run(){
+		StateActivity original = new StateActivity();
+		original.fill();
+
+		AndroidAutowire.setBinaryBundleState(false);
+		Bundle entries = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(entries, original, Activity.class);
+
+		AndroidAutowire.setBinaryBundleState(true);
+		Bundle binary = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(binary, original, Activity.class);
+		StateActivity restored = new StateActivity();
+		AndroidAutowire.loadFieldsFromBundle(binary, restored, Activity.class);
+		expect("binary state round trips", restored.describe().equals(original.describe()));
+		expect("Serializable fields keep their own entry", binary.size() == 2);
+
+		StateActivity compatible = new StateActivity();
+		AndroidAutowire.loadFieldsFromBundle(entries, compatible, Activity.class);
+		expect("per-field state restores with binary state on", compatible.describe().equals(original.describe()));
+
+		int entriesSize = parceledSize(entries);
+		int binarySize = parceledSize(binary);
+		System.out.println("Per-field entries: " + entries.size() + " entries, " + entriesSize + " bytes parceled");
+		System.out.println("Binary state:      " + binary.size() + " entries, " + binarySize + " bytes parceled");
+		expect("binary state is smaller", binarySize < entriesSize);
+
+		AndroidAutowire.setBinaryBundleState(false);
+	}
+
+	private static int parceledSize(Bundle bundle){
+		Parcel parcel = Parcel.obtain();
+		try {
+			bundle.writeToParcel(parcel, 0);
+			return parcel.dataSize();
+		} finally {
+			parcel.recycle();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.nio.charset.Charset;
+
+import android.app.Activity;
+import android.os.Bundle;
+
+/**
+ * Checks {@link Bundler}s for {@link SaveInstance} fields, with and without binary state. A field of a type that is
+ * neither Parcelable nor Serializable must not be saved until a Bundler is registered for a type it implements,
+ * registering must rebuild plans that were already built, a Bundler named by the annotation must win over the
+ * Bundle method for the field's type, and fields with a Bundler must keep their own entry in binary state.
+ */
+public class BundlerCheck extends Check {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	public interface Amount {
+		long getCents();
+	}
+
+	/** Neither Parcelable nor Serializable */
+	public static final class Money implements Amount {
+		final long cents;
+		final String currency;
+
+		public Money(long cents, String currency){
+			this.cents = cents;
+			this.currency = currency;
+		}
+
+		@Override
+		public long getCents(){
+			return cents;
+		}
+
+		@Override
+		public boolean equals(Object other){
+			return other instanceof Money && ((Money) other).cents == cents && ((Money) other).currency.equals(currency);
+		}
+
+		@Override
+		public int hashCode(){
+			return (int) cents;
+		}
+	}
+
+	public static final class AmountBundler implements Bundler<Amount> {
+		@Override
+		public void put(Bundle bundle, String key, Amount value){
+			Money money = (Money) value;
+			bundle.putLong(key, money.cents);
+			bundle.putString(key + ":currency", money.currency);
+		}
+
+		@Override
+		public Amount get(Bundle bundle, String key){
+			String currency = bundle.getString(key + ":currency");
+			return currency == null ? null : new Money(bundle.getLong(key), currency);
+		}
+	}
+
+	public static final class Utf8Bundler implements Bundler<String> {
+		@Override
+		public void put(Bundle bundle, String key, String value){
+			bundle.putByteArray(key, value.getBytes(UTF_8));
+		}
+
+		@Override
+		public String get(Bundle bundle, String key){
+			byte[] saved = bundle.getByteArray(key);
+			return saved == null ? null : new String(saved, UTF_8);
+		}
+	}
+
+	public static class CartActivity extends Activity {
+		@SaveInstance int items;
+		@SaveInstance Money total;
+		@SaveInstance(bundler = Utf8Bundler.class) String note;
+		@SaveInstance String coupon;
+		@SaveInstance Money tip;
+
+		void fill(){
+			items = 3;
+			total = new Money(1999, "USD");
+			note = "leave at door \u2713";
+			coupon = "SPRING";
+			tip = null;
+		}
+
+		boolean sameAs(CartActivity other){
+			return items == other.items && equal(total, other.total) && equal(note, other.note)
+					&& equal(coupon, other.coupon) && equal(tip, other.tip);
+		}
+	}
+
+	public BundlerCheck(){
+		super("Bundlers");
+	}
+
+	@Override
+	protected void run(){
+		CartActivity original = new CartActivity();
+		original.fill();
+		String prefix = CartActivity.class.getName();
+
+		Bundle unregistered = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(unregistered, original, Activity.class);
+		CartActivity dropped = new CartActivity();
+		AndroidAutowire.loadFieldsFromBundle(unregistered, dropped, Activity.class);
+		expect("a type without a Bundler is not saved", dropped.total == null);
+		expect("the annotation's Bundler is used", unregistered.getByteArray(prefix + "note") != null
+				&& original.note.equals(dropped.note));
+
+		AndroidAutowire.registerBundler(Amount.class, new AmountBundler());
+		for(boolean binary : new boolean[]{false, true}){
+			AndroidAutowire.setBinaryBundleState(binary);
+			String mode = binary ? " with binary state" : "";
+			Bundle bundle = new Bundle();
+			AndroidAutowire.saveFieldsToBundle(bundle, original, Activity.class);
+			CartActivity restored = new CartActivity();
+			AndroidAutowire.loadFieldsFromBundle(bundle, restored, Activity.class);
+			expect("registering rebuilds the plan and round trips" + mode, restored.sameAs(original));
+			expect("the registered Bundler is used for a subtype" + mode, bundle.getString(prefix + "total:currency") != null);
+			expect("null values are not saved" + mode, !bundle.containsKey(prefix + "tip"));
+			if(binary){
+				expect("fields with a Bundler keep their own entries", bundle.containsKey(prefix + "total")
+						&& bundle.containsKey(prefix + "note") && !bundle.containsKey(prefix + "coupon"));
+			}
+		}
+		AndroidAutowire.setBinaryBundleState(false);
+
+		AndroidAutowire.registerBundler(Amount.class, null);
+		Bundle removed = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(removed, original, Activity.class);
+		expect("removing the Bundler restores the default", !removed.containsKey(prefix + "total"));
+	}
+
+	private static boolean equal(Object a, Object b){
+		return a == null ? b == null : a.equals(b);
+	}
+}
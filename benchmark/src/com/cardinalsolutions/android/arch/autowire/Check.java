@@ -0,0 +1,65 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A check of the library against the Android stand-ins, and the program that runs the checks.
+ * <br /><br />
+ * The checks live in the library package, so they can reach package private state such as the binding plans, the
+ * layout pool and the Bundle key settings. Each check reports what it expects with {@link #expect(String, boolean)},
+ * and the program exits with status 1 if any expectation failed. The benchmark build runs it after compiling, so a
+ * failed check fails the build.
+ * <br /><br />
+ * Usage: {@code Check [name ...]}, for example {@code Check LayoutPoolCheck}. Every check is run if no names are given.
+ */
+public abstract class Check {
+
+	private final String subject;
+	private boolean passed = true;
+
+	/**
+	 * @param subject What is checked, for the summary line, for example "Layout pool"
+	 */
+	protected Check(String subject){
+		this.subject = subject;
+	}
+
+	static List<Check> all(){
+		return Arrays.asList(new TraceSectionsCheck(), new AsyncLayoutCheck(), new LayoutPoolCheck(), new BinaryStateCheck(),
+				new BundlerCheck(), new CompactKeyCheck(), new UnbindHeapCheck());
+	}
+
+	/**
+	 * Run the check, calling {@link #expect(String, boolean)} for everything it checks.
+	 */
+	protected abstract void run() throws Exception;
+
+	/**
+	 * Record an expectation, printing the description if it is not met.
+	 * @return the condition
+	 */
+	protected boolean expect(String description, boolean condition){
+		if(!condition){
+			System.err.println("Failed: " + description);
+			passed = false;
+		}
+		return condition;
+	}
+
+	public static void main(String[] args) throws Exception{
+		List<String> names = Arrays.asList(args);
+		boolean passed = true;
+		for(Check check : all()){
+			if(!names.isEmpty() && !names.contains(check.getClass().getSimpleName())){
+				continue;
+			}
+			check.run();
+			System.out.println(check.subject + (check.passed ? " as expected" : " not as expected"));
+			passed &= check.passed;
+		}
+		if(!passed){
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.app.Activity;
+import android.os.Bundle;
+
+/**
+ * Checks compact Bundle keys that collide. The classes {@code Ab} and {@code BC} have names with the same String
+ * hash code, so the {@code value} field of each has the same compact key. Both fields must survive a round trip, as
+ * must a field whose compact key was already put in the Bundle by a class that is not annotated. The fields
+ * {@code Aa} and {@code BB} of {@code Pair} also collide, and a null field must not restore the other field's value.
+ */
+public class CompactKeyCheck extends Check {
+
+	public static class Ab extends Activity {
+		@SaveInstance int value;
+	}
+
+	public static class BC extends Ab {
+		@SaveInstance Integer value;
+	}
+
+	public static class Pair extends Activity {
+		@SaveInstance String Aa;
+		@SaveInstance String BB;
+	}
+
+	public CompactKeyCheck(){
+		super("Compact keys");
+	}
+
+	@Override
+	protected void run(){
+		String baseKey = Ab.class.getName() + "value";
+		String subKey = BC.class.getName() + "value";
+		expect("the fixture's compact keys collide", AutowirePlan.compactKey(baseKey).equals(AutowirePlan.compactKey(subKey)));
+
+		AndroidAutowire.setCompactBundleKeys(true);
+		BC original = new BC();
+		((Ab) original).value = 1;
+		original.value = 2;
+		Bundle bundle = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(bundle, original, Activity.class);
+		BC restored = new BC();
+		AndroidAutowire.loadFieldsFromBundle(bundle, restored, Activity.class);
+		expect("colliding fields in the chain round trip", ((Ab) restored).value == 1 && Integer.valueOf(2).equals(restored.value));
+
+		Bundle outState = new Bundle();
+		outState.putString(AutowirePlan.compactKey(baseKey), "not autowired");
+		Ab single = new Ab();
+		single.value = 3;
+		AndroidAutowire.saveFieldsToBundle(outState, single, Activity.class);
+		Ab singleRestored = new Ab();
+		AndroidAutowire.loadFieldsFromBundle(outState, singleRestored, Activity.class);
+		expect("other state under the compact key is kept", "not autowired".equals(outState.getString(AutowirePlan.compactKey(baseKey))));
+		expect("a field whose compact key is taken round trips", singleRestored.value == 3);
+
+		Pair pair = new Pair();
+		pair.BB = "from BB";
+		Bundle pairState = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(pairState, pair, Activity.class);
+		Pair pairRestored = new Pair();
+		AndroidAutowire.loadFieldsFromBundle(pairState, pairRestored, Activity.class);
+		expect("a null field does not restore the value of a colliding field", pairRestored.Aa == null && "from BB".equals(pairRestored.BB));
+		AndroidAutowire.setCompactBundleKeys(false);
+	}
+}
@@ -0,0 +1,120 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.ViewGroup;
+
+import com.cardinalsolutions.android.arch.autowire.benchmark.FixtureSpec;
+import com.cardinalsolutions.android.arch.autowire.benchmark.Fixtures;
+
+/**
+ * Stress check for the metadata caches: many threads autowire custom views of the same and of different classes
+ * at once, starting from empty caches every round.
+ * <br /><br />
+ * Every view must be fully autowired, and every thread must see the same plan instance for a class, showing that
+ * each plan was only built once. Alternate rounds use single pass view lookup. Lives in the library package to reach
+ * the plans. Exits with status 1 if anything fails.
+ * <br /><br />
+ * Usage: {@code ConcurrentAutowireStress [threads] [rounds]}, with the {@code Fixtures.viewSpecs()} classes compiled.
+ */
+public class ConcurrentAutowireStress {
+
+	public static void main(String[] args) throws Exception{
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+		final Context context = new Activity();
+		final List<FixtureSpec> specs = Fixtures.viewSpecs();
+		for(FixtureSpec spec : specs){
+			spec.registerIds(context.getResources(), context.getPackageName());
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final AtomicInteger failures = new AtomicInteger();
+		try {
+			for(int round = 0; round < rounds; round++){
+				AndroidAutowire.clearCaches();
+				AndroidAutowire.setSinglePassViewLookup(round % 2 == 1);
+				final ConcurrentMap<Class<?>, AutowirePlan> plans = new ConcurrentHashMap<Class<?>, AutowirePlan>();
+				final CountDownLatch start = new CountDownLatch(1);
+				List<Future<Void>> results = new ArrayList<Future<Void>>();
+				for(int thread = 0; thread < threads; thread++){
+					//Half the threads bind the same class, the rest start at a different class
+					final int first = thread % 2 == 0 ? 0 : thread % specs.size();
+					results.add(pool.submit(new Callable<Void>(){
+						@Override
+						public Void call() throws Exception{
+							List<ViewGroup> views = new ArrayList<ViewGroup>();
+							for(int i = 0; i < specs.size(); i++){
+								views.add(Fixtures.newView(specs.get((first + i) % specs.size()), context));
+							}
+							start.await();
+							for(int i = 0; i < views.size(); i++){
+								FixtureSpec spec = specs.get((first + i) % specs.size());
+								ViewGroup view = views.get(i);
+								checkPlans(view.getClass(), plans, failures);
+								AndroidAutowire.autowireView(view, spec.baseClass(), context);
+								checkViews(view, spec, failures);
+							}
+							return null;
+						}
+					}));
+				}
+				start.countDown();
+				for(Future<Void> result : results){
+					result.get();
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		System.out.println(threads + " threads, " + rounds + " rounds, " + failures.get() + " failures");
+		if(failures.get() > 0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Called before the view is autowired, so that the threads race to build the plans.
+	 */
+	private static void checkPlans(Class<?> clazz, ConcurrentMap<Class<?>, AutowirePlan> plans, AtomicInteger failures){
+		while(clazz != ViewGroup.class){
+			AutowirePlan plan = AutowirePlan.forClass(clazz);
+			AutowirePlan first = plans.putIfAbsent(clazz, plan);
+			if(first != null && first != plan){
+				failures.incrementAndGet();
+				System.err.println("Two plans were built for " + clazz.getName());
+			}
+			clazz = clazz.getSuperclass();
+		}
+	}
+
+	private static void checkViews(ViewGroup view, FixtureSpec spec, AtomicInteger failures) throws Exception{
+		Class<?> clazz = view.getClass();
+		while(clazz != ViewGroup.class){
+			for(Field field : clazz.getDeclaredFields()){
+				if(field.isAnnotationPresent(AndroidView.class)){
+					field.setAccessible(true);
+					if(field.get(view) == null){
+						failures.incrementAndGet();
+						System.err.println(spec.getName() + ": " + field.getName() + " was not autowired");
+					}
+				}
+			}
+			clazz = clazz.getSuperclass();
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Bundle;
+import android.os.Looper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Checks the layout pool with {@link BaseAutowireActivity} and {@link BaseAutowireFragment}, running the idle
+ * handlers of the stand-in main {@code Looper} on this thread. Layouts must be resolved in the background and added
+ * to the pool on the main thread, then inflated on idle up to the size limit, taken and autowired instead of
+ * inflated, refilled after they are taken, and released on memory trim. A layout that throws an {@code Error}
+ * when it is inflated must stop being pooled, without escaping the idle handler.
+ */
+public class LayoutPoolCheck extends Check {
+
+	static final int HOME_LAYOUT_ID = 0x7f030005;
+	static final int DETAIL_LAYOUT_ID = 0x7f030006;
+	static final int SETTINGS_LAYOUT_ID = 0x7f030007;
+	static final int FAILING_LAYOUT_ID = 0x7f03000a;
+	static final int TITLE_ID = 0x7f0a0005;
+	static final long TIMEOUT_MILLIS = 5000;
+
+	static int inflations;
+
+	@AndroidLayout(HOME_LAYOUT_ID)
+	public static class HomeActivity extends BaseAutowireActivity {
+
+		@AndroidView(TITLE_ID)
+		View title;
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+		}
+	}
+
+	@AndroidLayout(DETAIL_LAYOUT_ID)
+	public static class DetailFragment extends BaseAutowireFragment {
+
+		@AndroidView(TITLE_ID)
+		View title;
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+		}
+	}
+
+	@AndroidLayout(SETTINGS_LAYOUT_ID)
+	public static class SettingsActivity extends BaseAutowireActivity {
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+		}
+	}
+
+	@AndroidLayout(FAILING_LAYOUT_ID)
+	public static class FailingActivity extends BaseAutowireActivity {
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+		}
+	}
+
+	public LayoutPoolCheck(){
+		super("Layout pool");
+	}
+
+	@Override
+	protected void run() throws Exception{
+		Looper.prepareMainLooper();
+		LayoutInflater.StandInLayout layout = new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				inflations++;
+				ViewGroup root = new ViewGroup(context);
+				View title = new View(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				return root;
+			}
+		};
+		LayoutInflater.register(HOME_LAYOUT_ID, layout);
+		LayoutInflater.register(DETAIL_LAYOUT_ID, layout);
+		LayoutInflater.register(SETTINGS_LAYOUT_ID, layout);
+		Context context = new Context(){};
+
+		AndroidAutowire.setLayoutPoolSize(2);
+		AndroidAutowire.poolLayouts(context, BaseAutowireActivity.class, HomeActivity.class, SettingsActivity.class);
+		AndroidAutowire.poolLayouts(context, BaseAutowireFragment.class, DetailFragment.class);
+		runIdle();
+		expect("layouts are not pooled until they are resolved in the background", inflations == 0);
+		expect("the resolved layouts are posted to the main thread", Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS)
+				&& Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS));
+		expect("nothing is inflated until the main thread is idle", inflations == 0);
+		runIdle();
+		expect("the pool is filled up to its size", LayoutPool.size() == 2 && inflations == 2);
+
+		HomeActivity home = new HomeActivity();
+		home.onCreate(null);
+		expect("the Activity takes the pooled layout", inflations == 2 && LayoutPool.size() == 1);
+		expect("the pooled layout is autowired", home.title != null && home.findViewById(TITLE_ID) == home.title);
+		expect("the pooled layout's context is the Activity", home.title != null
+				&& ((MutableContextWrapper) home.title.getContext()).getBaseContext() == home);
+		runIdle();
+		expect("the pool is refilled on idle", LayoutPool.size() == 2 && inflations == 3);
+
+		DetailFragment detail = new DetailFragment();
+		int before = inflations;
+		View detailView = detail.onCreateView(LayoutInflater.from(home), null, null);
+		expect("the Fragment takes the pooled layout", inflations == before && detailView != null && detail.title != null);
+		runIdle();
+
+		AndroidAutowire.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+		expect("moderate memory pressure keeps the pool", LayoutPool.size() == 2);
+		AndroidAutowire.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+		expect("low memory releases the pool", LayoutPool.size() == 0);
+
+		before = inflations;
+		HomeActivity inflated = new HomeActivity();
+		inflated.onCreate(null);
+		expect("an empty pool inflates as usual", inflations == before + 1 && inflated.title != null);
+		runIdle();
+		expect("the pool is refilled after a miss", LayoutPool.size() == 2);
+
+		LayoutInflater.register(FAILING_LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				throw new OutOfMemoryError("Stand-in drawable");
+			}
+		});
+		AndroidAutowire.setLayoutPoolSize(4);
+		AndroidAutowire.poolLayouts(context, BaseAutowireActivity.class, FailingActivity.class);
+		Looper.getMainLooper().runNextStandIn(TIMEOUT_MILLIS);
+		boolean errorCaught;
+		try {
+			runIdle();
+			errorCaught = true;
+		} catch (OutOfMemoryError e){
+			errorCaught = false;
+		}
+		expect("an Error from inflation does not escape the idle handler", errorCaught);
+		expect("a layout that throws an Error is not pooled", LayoutPool.take(FAILING_LAYOUT_ID, context) == null);
+
+		AndroidAutowire.setLayoutPoolSize(0);
+		expect("a size of 0 releases the pool", LayoutPool.size() == 0);
+		before = inflations;
+		runIdle();
+		expect("a size of 0 stops pooling", inflations == before);
+	}
+
+	private static void runIdle(){
+		while(Looper.getMainLooper().getQueue().runIdleStandIn() > 0){
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.Arrays;
+import java.util.List;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Trace;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Checks the trace sections added around the phases of {@link BaseAutowireActivity#onCreate(Bundle)}, using the
+ * recording stand-in {@code android.os.Trace}.
+ */
+public class TraceSectionsCheck extends Check {
+
+	static final int LAYOUT_ID = 0x7f030001;
+	static final int TITLE_ID = 0x7f0a0001;
+
+	@AndroidLayout(LAYOUT_ID)
+	public static class TracedActivity extends BaseAutowireActivity {
+
+		@AndroidView(TITLE_ID)
+		View title;
+
+		@SaveInstance
+		int count;
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+		}
+	}
+
+	public TraceSectionsCheck(){
+		super("Trace sections");
+	}
+
+	@Override
+	protected void run(){
+		LayoutInflater.register(LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				ViewGroup root = new ViewGroup(context);
+				View title = new View(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				return root;
+			}
+		});
+		String name = TracedActivity.class.getName();
+
+		AndroidAutowire.setTracingEnabled(false);
+		Trace.clearEvents();
+		new TracedActivity().onCreate(new Bundle());
+		expectEvents("disabled", Arrays.<String>asList());
+
+		AndroidAutowire.setTracingEnabled(true);
+		Trace.clearEvents();
+		TracedActivity activity = new TracedActivity();
+		activity.onCreate(new Bundle());
+		expectEvents("onCreate", Arrays.asList(
+				"B:Autowire restore " + name, "E",
+				"B:Autowire layout " + name, "E",
+				"B:Autowire setContentView " + name, "E",
+				"B:Autowire bind " + name, "E",
+				"B:Autowire afterAutowire " + name, "E"));
+
+		Trace.clearEvents();
+		activity.onSaveInstanceState(new Bundle());
+		expectEvents("onSaveInstanceState", Arrays.asList("B:Autowire save " + name, "E"));
+
+		expect("the view is autowired", activity.title != null);
+		AndroidAutowire.setTracingEnabled(false);
+	}
+
+	private void expectEvents(String step, List<String> expected){
+		List<String> actual = Trace.getEvents();
+		expect(step + ": expected " + expected + " but was " + actual, actual.equals(expected));
+	}
+}
@@ -0,0 +1,136 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import android.app.Fragment;
+import android.content.Context;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Checks that {@link BaseAutowireFragment} releases its views in {@code onDestroyView()}, so the old view hierarchy
+ * of a Fragment on the back stack can be collected. The Fragments are kept, as the back stack would keep them, and
+ * weak references to their old content views are watched across garbage collections. A control run, where
+ * {@code onDestroyView()} does not unbind, shows the hierarchies being retained through the autowired fields.
+ */
+public class UnbindHeapCheck extends Check {
+
+	static final int LAYOUT_ID = 0x7f030002;
+	static final int TITLE_ID = 0x7f0a0002;
+	static final int ICON_ID = 0x7f0a0003;
+	static final int FRAGMENTS = 20;
+
+	@AndroidLayout(LAYOUT_ID)
+	public static class BackStackFragment extends BaseAutowireFragment {
+
+		@AndroidView(TITLE_ID)
+		View title;
+
+		@AndroidView(ICON_ID)
+		LazyView<View> icon;
+
+		@Override
+		protected void afterAutowire(Bundle savedInstanceState){
+			icon.get();
+		}
+	}
+
+	/** Control: does not release its views */
+	@AndroidLayout(LAYOUT_ID)
+	public static class LeakingFragment extends Fragment {
+
+		@AndroidView(TITLE_ID)
+		View title;
+
+		@Override
+		public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState){
+			View contentView = inflater.inflate(LAYOUT_ID, container, false);
+			AndroidAutowire.autowireFragment(this, Fragment.class, contentView, inflater.getContext());
+			return contentView;
+		}
+	}
+
+	public UnbindHeapCheck(){
+		super("Unbinding");
+	}
+
+	@Override
+	protected void run(){
+		LayoutInflater.register(LAYOUT_ID, new LayoutInflater.StandInLayout(){
+			@Override
+			public View create(Context context){
+				ViewGroup root = new ViewGroup(context);
+				View title = new View(context);
+				title.setId(TITLE_ID);
+				root.addView(title);
+				View icon = new View(context);
+				icon.setId(ICON_ID);
+				root.addView(icon);
+				return root;
+			}
+		});
+		LayoutInflater inflater = LayoutInflater.from(new Context(){});
+
+		List<Fragment> backStack = new ArrayList<Fragment>();
+		List<WeakReference<View>> released = new ArrayList<WeakReference<View>>();
+		for(int i = 0; i < FRAGMENTS; i++){
+			BackStackFragment fragment = new BackStackFragment();
+			fragment.onCreate(null);
+			released.add(new WeakReference<View>(fragment.onCreateView(inflater, null, null)));
+			fragment.onDestroyView();
+			backStack.add(fragment);
+		}
+
+		List<WeakReference<View>> retained = new ArrayList<WeakReference<View>>();
+		for(int i = 0; i < FRAGMENTS; i++){
+			LeakingFragment fragment = new LeakingFragment();
+			retained.add(new WeakReference<View>(fragment.onCreateView(inflater, null, null)));
+			fragment.onDestroyView();
+			backStack.add(fragment);
+		}
+
+		collectGarbage(released);
+		int releasedAlive = alive(released);
+		int retainedAlive = alive(retained);
+		System.out.println("Back stack of " + backStack.size() + " fragments");
+		System.out.println("unbind:    " + releasedAlive + "/" + FRAGMENTS + " old hierarchies still reachable");
+		System.out.println("no unbind: " + retainedAlive + "/" + FRAGMENTS + " old hierarchies still reachable");
+
+		expect("the old view hierarchies are collected", releasedAlive == 0);
+		boolean fieldsReleased = true;
+		for(Fragment fragment : backStack){
+			if(fragment instanceof BackStackFragment){
+				BackStackFragment unbound = (BackStackFragment) fragment;
+				fieldsReleased &= unbound.title == null && unbound.icon == null;
+			}
+		}
+		expect("the view fields are released", fieldsReleased);
+		expect("the control fragments retain their views, or the check proves nothing", retainedAlive == FRAGMENTS);
+	}
+
+	private static void collectGarbage(List<WeakReference<View>> refs){
+		for(int i = 0; i < 20 && alive(refs) > 0; i++){
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e){
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static int alive(List<WeakReference<View>> refs){
+		int alive = 0;
+		for(WeakReference<View> ref : refs){
+			if(ref.get() != null){
+				alive++;
+			}
+		}
+		return alive;
+	}
+}
@@ -0,0 +1,63 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.app.Activity;
+import android.view.View;
+
+import com.cardinalsolutions.android.arch.autowire.AndroidAutowire;
+
+/**
+ * Warm binds: the binding plans are already cached, as they are for every Activity after the first of its class.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutowireBenchmark {
+
+	@Param({"1", "10", "100", "500"})
+	int fields;
+
+	@Param({"1", "2", "3", "4", "5"})
+	int depth;
+
+	private Activity activity;
+	private Class<?> baseClass;
+	private View contentView;
+
+	@Setup
+	public void setup() throws Exception{
+		FixtureSpec spec = Fixtures.spec(fields, depth);
+		activity = Fixtures.newActivity(spec);
+		baseClass = spec.baseClass();
+		contentView = activity.getWindow().getDecorView();
+		AndroidAutowire.autowire(activity, baseClass);
+	}
+
+	@Benchmark
+	public Object autowire(){
+		AndroidAutowire.autowire(activity, baseClass);
+		return activity;
+	}
+
+	@Benchmark
+	public Object autowireFragment(){
+		AndroidAutowire.autowireFragment(activity, baseClass, contentView, activity);
+		return activity;
+	}
+}
@@ -0,0 +1,68 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.app.Activity;
+import android.os.Bundle;
+
+import com.cardinalsolutions.android.arch.autowire.AndroidAutowire;
+
+/**
+ * Warm save and restore of {@code @SaveInstance} fields, as Bundle entries of their own and as binary state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BundleBenchmark {
+
+	@Param({"1", "10", "100", "500"})
+	int fields;
+
+	@Param({"1", "2", "3", "4", "5"})
+	int depth;
+
+	@Param({"false", "true"})
+	boolean binaryState;
+
+	private Activity activity;
+	private Class<?> baseClass;
+	private Bundle savedState;
+
+	@Setup
+	public void setup() throws Exception{
+		FixtureSpec spec = Fixtures.spec(fields, depth);
+		activity = Fixtures.newActivity(spec);
+		baseClass = spec.baseClass();
+		AndroidAutowire.setBinaryBundleState(binaryState);
+		savedState = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(savedState, activity, baseClass);
+	}
+
+	@Benchmark
+	public Object saveFieldsToBundle(){
+		Bundle bundle = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(bundle, activity, baseClass);
+		return bundle;
+	}
+
+	@Benchmark
+	public Object loadFieldsFromBundle(){
+		AndroidAutowire.loadFieldsFromBundle(savedState, activity, baseClass);
+		return activity;
+	}
+}
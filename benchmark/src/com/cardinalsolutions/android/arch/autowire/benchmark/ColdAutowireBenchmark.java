@@ -0,0 +1,87 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.view.View;
+
+import com.cardinalsolutions.android.arch.autowire.AndroidAutowire;
+
+/**
+ * Cold binds: all AndroidAutowire caches are cleared before every bind, as on the first Activity of its class.
+ * The JVM's own reflection caches can not be cleared, so this measures the cost of building the plans,
+ * not of first time class loading.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+@Fork(1)
+public class ColdAutowireBenchmark {
+
+	@Param({"1", "10", "100", "500"})
+	int fields;
+
+	@Param({"1", "2", "3", "4", "5"})
+	int depth;
+
+	private Activity activity;
+	private Class<?> baseClass;
+	private View contentView;
+	private Bundle savedState;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception{
+		FixtureSpec spec = Fixtures.spec(fields, depth);
+		activity = Fixtures.newActivity(spec);
+		baseClass = spec.baseClass();
+		contentView = activity.getWindow().getDecorView();
+		savedState = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(savedState, activity, baseClass);
+	}
+
+	@Setup(Level.Iteration)
+	public void clearCaches(){
+		AndroidAutowire.clearCaches();
+	}
+
+	@Benchmark
+	public Object autowire(){
+		AndroidAutowire.autowire(activity, baseClass);
+		return activity;
+	}
+
+	@Benchmark
+	public Object autowireFragment(){
+		AndroidAutowire.autowireFragment(activity, baseClass, contentView, activity);
+		return activity;
+	}
+
+	@Benchmark
+	public Object saveFieldsToBundle(){
+		Bundle bundle = new Bundle();
+		AndroidAutowire.saveFieldsToBundle(bundle, activity, baseClass);
+		return bundle;
+	}
+
+	@Benchmark
+	public Object loadFieldsFromBundle(){
+		AndroidAutowire.loadFieldsFromBundle(savedState, activity, baseClass);
+		return activity;
+	}
+}
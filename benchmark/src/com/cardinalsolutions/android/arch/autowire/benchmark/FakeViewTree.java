@@ -0,0 +1,103 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Builds stand-in view hierarchies of a given depth and fan-out, containing the views a {@link FixtureSpec} autowires.
+ * <br /><br />
+ * Every group has {@code fanOut} children, down to {@code depth} levels below the root. The ids are given to the
+ * leaves, spread evenly across the tree so that lookups are not all at the front of a depth first search. If there
+ * are more ids than leaves, the remaining ids are given to the groups. All other views have no id.
+ */
+public final class FakeViewTree {
+
+	private FakeViewTree(){
+	}
+
+	/**
+	 * @return the number of views in a tree of this shape, including the root
+	 */
+	public static long size(int depth, int fanOut){
+		long size = 1;
+		long levelSize = 1;
+		for(int i = 0; i < depth; i++){
+			levelSize *= fanOut;
+			size += levelSize;
+		}
+		return size;
+	}
+
+	/**
+	 * Build the tree.
+	 * @param context Context for the views
+	 * @param ids Ids of the views to place in the tree
+	 * @param depth Number of levels below the root
+	 * @param fanOut Number of children of each group
+	 * @return root of the tree
+	 */
+	public static ViewGroup build(Context context, int[] ids, int depth, int fanOut){
+		long leaves = size(depth, fanOut) - size(depth - 1, fanOut);
+		long groups = size(depth - 1, fanOut);
+		if(depth < 1 || fanOut < 1 || ids.length > leaves + groups){
+			throw new IllegalArgumentException("A tree of depth " + depth + " and fan-out " + fanOut + " can not hold " + ids.length + " views");
+		}
+		ViewGroup root = new ViewGroup(context);
+		Counter counter = new Counter(ids, leaves);
+		addChildren(root, context, depth, fanOut, counter);
+		//More ids than leaves: give the rest to the groups, starting at the root
+		if(counter.next < ids.length){
+			assignGroups(root, ids, counter);
+		}
+		return root;
+	}
+
+	private static void addChildren(ViewGroup parent, Context context, int depth, int fanOut, Counter counter){
+		for(int i = 0; i < fanOut; i++){
+			if(depth == 1){
+				View leaf = new View(context);
+				counter.assignLeaf(leaf);
+				parent.addView(leaf);
+			}else{
+				ViewGroup group = new ViewGroup(context);
+				parent.addView(group);
+				addChildren(group, context, depth - 1, fanOut, counter);
+			}
+		}
+	}
+
+	private static void assignGroups(View view, int[] ids, Counter counter){
+		if(!(view instanceof ViewGroup) || counter.next >= ids.length){
+			return;
+		}
+		ViewGroup group = (ViewGroup) view;
+		group.setId(ids[counter.next++]);
+		for(int i = 0; i < group.getChildCount(); i++){
+			assignGroups(group.getChildAt(i), ids, counter);
+		}
+	}
+
+	/**
+	 * Spreads the ids evenly over the leaves, in the order the leaves are created.
+	 */
+	private static final class Counter {
+		final int[] ids;
+		final long leaves;
+		long leaf;
+		int next;
+
+		Counter(int[] ids, long leaves){
+			this.ids = ids;
+			this.leaves = leaves;
+		}
+
+		void assignLeaf(View view){
+			int slot = (int) (leaf * Math.min(ids.length, leaves) / leaves);
+			if(slot == next && next < ids.length){
+				view.setId(ids[next++]);
+			}
+			leaf++;
+		}
+	}
+}
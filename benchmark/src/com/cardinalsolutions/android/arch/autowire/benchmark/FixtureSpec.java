@@ -0,0 +1,201 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+/**
+ * Describes a synthetic inheritance chain of autowired classes, written by {@link SyntheticClassGenerator}.
+ * <br /><br />
+ * The chain is {@code <name>Level1} to {@code <name>Level<depth>}, where level 1 extends the Android class for the
+ * {@link Kind}. Annotated fields are spread evenly over the levels, with any remainder in the most derived class.
+ * Everything about a field (its name, view id, id name and how the id is resolved) is a function of the spec and the
+ * index of the field, so benchmarks can rebuild the matching view tree and resource table from the same spec.
+ */
+public final class FixtureSpec {
+
+	public static final String PACKAGE = "com.cardinalsolutions.android.arch.autowire.benchmark.fixture";
+
+	/**
+	 * The kind of class to generate, and the Android class level 1 extends.
+	 */
+	public enum Kind {
+		ACTIVITY("android.app.Activity"),
+		FRAGMENT("android.app.Fragment"),
+		VIEW("android.view.ViewGroup");
+
+		final String superclass;
+
+		Kind(String superclass){
+			this.superclass = superclass;
+		}
+	}
+
+	/**
+	 * How an {@code @AndroidView} field gives the id of its view.
+	 */
+	public enum Resolution {
+		/** {@code @AndroidView(R.id.name)} */
+		VALUE,
+		/** {@code @AndroidView(id="name")} */
+		ID,
+		/** {@code @AndroidView}, the field name is the id */
+		FIELD_NAME
+	}
+
+	private final String name;
+	private final Kind kind;
+	private int viewFields = 10;
+	private int saveFields = 0;
+	private int depth = 1;
+	private int valueWeight = 1;
+	private int idWeight = 0;
+	private int fieldNameWeight = 0;
+	private int firstViewId = 0x7f0a0000;
+
+	public FixtureSpec(String name, Kind kind){
+		this.name = name;
+		this.kind = kind;
+	}
+
+	public FixtureSpec viewFields(int count){
+		this.viewFields = count;
+		return this;
+	}
+
+	public FixtureSpec saveFields(int count){
+		this.saveFields = count;
+		return this;
+	}
+
+	public FixtureSpec depth(int levels){
+		if(levels < 1){
+			throw new IllegalArgumentException("depth must be at least 1");
+		}
+		this.depth = levels;
+		return this;
+	}
+
+	/**
+	 * Set the mix of id resolution. Fields cycle through the resolutions in proportion to the weights:
+	 * with weights 2, 1, 1, fields 0 and 1 use {@code value}, field 2 uses {@code id} and field 3 uses the field name.
+	 */
+	public FixtureSpec resolutionMix(int value, int id, int fieldName){
+		if(value + id + fieldName <= 0){
+			throw new IllegalArgumentException("At least one resolution weight must be positive");
+		}
+		this.valueWeight = value;
+		this.idWeight = id;
+		this.fieldNameWeight = fieldName;
+		return this;
+	}
+
+	public FixtureSpec firstViewId(int id){
+		this.firstViewId = id;
+		return this;
+	}
+
+	public String getName(){
+		return name;
+	}
+
+	public Kind getKind(){
+		return kind;
+	}
+
+	public int getViewFields(){
+		return viewFields;
+	}
+
+	public int getSaveFields(){
+		return saveFields;
+	}
+
+	public int getDepth(){
+		return depth;
+	}
+
+	public String className(int level){
+		return name + "Level" + level;
+	}
+
+	public String qualifiedClassName(int level){
+		return PACKAGE + "." + className(level);
+	}
+
+	public Class<?> baseClass() throws ClassNotFoundException{
+		return Class.forName(qualifiedClassName(1));
+	}
+
+	public Class<?> leafClass() throws ClassNotFoundException{
+		return Class.forName(qualifiedClassName(depth));
+	}
+
+	/**
+	 * Create an instance of the most derived class. Views are created with the context; activities and fragments
+	 * are created with their no argument constructor.
+	 */
+	public Object newInstance(Context context) throws Exception{
+		Class<?> leaf = leafClass();
+		if(kind == Kind.VIEW){
+			return leaf.getConstructor(Context.class).newInstance(context);
+		}
+		return leaf.getDeclaredConstructor().newInstance();
+	}
+
+	/**
+	 * @return index of the first of {@code count} fields declared at the level; for {@code depth + 1}, {@code count}
+	 */
+	int firstField(int count, int level){
+		if(level > depth){
+			return count;
+		}
+		return (count / depth) * (level - 1);
+	}
+
+	public Resolution resolution(int field){
+		int slot = field % (valueWeight + idWeight + fieldNameWeight);
+		if(slot < valueWeight){
+			return Resolution.VALUE;
+		}else if(slot < valueWeight + idWeight){
+			return Resolution.ID;
+		}
+		return Resolution.FIELD_NAME;
+	}
+
+	public int viewId(int field){
+		return firstViewId + field;
+	}
+
+	public String fieldName(int field){
+		return name.toLowerCase() + "_view" + field;
+	}
+
+	/**
+	 * @return the name of the id resource of the field
+	 */
+	public String idName(int field){
+		return resolution(field) == Resolution.ID ? name.toLowerCase() + "_id" + field : fieldName(field);
+	}
+
+	/**
+	 * @return the ids of every view the chain autowires
+	 */
+	public int[] viewIds(){
+		int[] ids = new int[viewFields];
+		for(int i = 0; i < viewFields; i++){
+			ids[i] = viewId(i);
+		}
+		return ids;
+	}
+
+	/**
+	 * Register the id names of the fields that are resolved by name, so {@code getIdentifier()} can find them.
+	 */
+	public void registerIds(Resources resources, String packageName){
+		for(int i = 0; i < viewFields; i++){
+			if(resolution(i) != Resolution.VALUE){
+				resources.register(packageName, "id", idName(i), viewId(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes the source of the fixture classes used by the benchmarks, with {@link SyntheticClassGenerator}.
+ * <br /><br />
+ * Usage: {@code FixtureWriter <source output directory>}
+ */
+public class FixtureWriter {
+
+	public static void main(String[] args) throws IOException{
+		if(args.length != 1){
+			System.err.println("Usage: FixtureWriter <source output directory>");
+			System.exit(1);
+		}
+		File sourceDir = new File(args[0]);
+		for(FixtureSpec spec : Fixtures.allSpecs()){
+			SyntheticClassGenerator.write(spec, sourceDir);
+		}
+	}
+}
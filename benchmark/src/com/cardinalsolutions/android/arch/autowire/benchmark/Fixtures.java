@@ -0,0 +1,114 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * The fixture chains used by the benchmarks, and the view trees to autowire them against.
+ */
+public final class Fixtures {
+
+	static final int[] FIELD_COUNTS = {1, 10, 100, 500};
+	static final int[] DEPTHS = {1, 2, 3, 4, 5};
+	static final int[] SCALING_FIELD_COUNTS = {10, 100, 500};
+	static final int[][] VIEW_FIELDS_AND_DEPTHS = {{10, 1}, {10, 3}, {50, 2}};
+
+	private Fixtures(){
+	}
+
+	/**
+	 * @return every spec {@link FixtureWriter} writes
+	 */
+	static List<FixtureSpec> allSpecs(){
+		List<FixtureSpec> specs = new ArrayList<FixtureSpec>();
+		for(int fields : FIELD_COUNTS){
+			for(int depth : DEPTHS){
+				specs.add(spec(fields, depth));
+			}
+		}
+		for(int fields : SCALING_FIELD_COUNTS){
+			specs.add(scalingSpec(fields));
+		}
+		specs.addAll(viewSpecs());
+		return specs;
+	}
+
+	/**
+	 * Activity chain with {@code fields} views (found by {@code value}) and {@code fields} saved fields
+	 */
+	public static FixtureSpec spec(int fields, int depth){
+		return new FixtureSpec("Fields" + fields + "Depth" + depth, FixtureSpec.Kind.ACTIVITY)
+				.viewFields(fields)
+				.saveFields(fields)
+				.depth(depth);
+	}
+
+	/**
+	 * Single Activity class with {@code fields} views, half found by {@code value}, a quarter by {@code id}
+	 * and a quarter by field name
+	 */
+	public static FixtureSpec scalingSpec(int fields){
+		return new FixtureSpec("Scale" + fields, FixtureSpec.Kind.ACTIVITY)
+				.viewFields(fields)
+				.resolutionMix(2, 1, 1);
+	}
+
+	/**
+	 * Custom view chain with {@code fields} views, half found by {@code value}, a quarter by {@code id}
+	 * and a quarter by field name
+	 */
+	public static FixtureSpec viewSpec(int fields, int depth){
+		return new FixtureSpec("View" + fields + "Depth" + depth, FixtureSpec.Kind.VIEW)
+				.viewFields(fields)
+				.resolutionMix(2, 1, 1)
+				.depth(depth);
+	}
+
+	/**
+	 * @return the custom view chains used by {@code ConcurrentAutowireStress}
+	 */
+	public static List<FixtureSpec> viewSpecs(){
+		List<FixtureSpec> specs = new ArrayList<FixtureSpec>();
+		for(int[] fieldsAndDepth : VIEW_FIELDS_AND_DEPTHS){
+			specs.add(viewSpec(fieldsAndDepth[0], fieldsAndDepth[1]));
+		}
+		return specs;
+	}
+
+	/**
+	 * Create an instance of the most derived class of a custom view spec, with a child tree
+	 * containing every view it autowires. The ids must already be registered with the context's resources.
+	 */
+	public static ViewGroup newView(FixtureSpec spec, Context context) throws Exception{
+		ViewGroup view = (ViewGroup) spec.newInstance(context);
+		view.addView(contentView(context, spec, 2, Math.max(2, (int) Math.ceil(Math.sqrt(spec.getViewFields())))));
+		return view;
+	}
+
+	/**
+	 * Create an instance of the most derived class of an Activity spec, with a content view
+	 * containing every view it autowires in a two level tree.
+	 */
+	public static Activity newActivity(FixtureSpec spec) throws Exception{
+		return newActivity(spec, 2, Math.max(2, (int) Math.ceil(Math.sqrt(spec.getViewFields()))));
+	}
+
+	/**
+	 * Create an instance of the most derived class of an Activity spec, with a content view of the given shape.
+	 */
+	public static Activity newActivity(FixtureSpec spec, int treeDepth, int fanOut) throws Exception{
+		Activity activity = (Activity) spec.newInstance(null);
+		spec.registerIds(activity.getResources(), activity.getPackageName());
+		activity.setContentView(contentView(activity, spec, treeDepth, fanOut));
+		return activity;
+	}
+
+	public static View contentView(Context context, FixtureSpec spec, int treeDepth, int fanOut){
+		return FakeViewTree.build(context, spec.viewIds(), treeDepth, fanOut);
+	}
+}
@@ -0,0 +1,126 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.cardinalsolutions.android.arch.autowire.AndroidAutowire;
+import com.cardinalsolutions.android.arch.autowire.AndroidView;
+
+/**
+ * Scrolling through a list: each invocation autowires the holders of 10,000 rows, recycling a screen's worth of
+ * item views, as an adapter does in {@code onCreateViewHolder()} or {@code getView()}. The holders are created in
+ * setup, so run with {@code -prof gc} to see what autowiring itself allocates per row.
+ * <br /><br />
+ * {@code autowireHolder} uses the flattened holder plan; {@code autowireFragment} is how holders were autowired
+ * before, walking the plan of each class and looking up ids given by name on every row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolderBenchmark {
+
+	static final int ROWS = 10000;
+	/** Item views on screen, and recycled, at once */
+	static final int ITEM_VIEWS = 12;
+
+	static final int ICON_ID = 0x7f0b0001;
+	static final int TITLE_ID = 0x7f0b0002;
+	static final int SUBTITLE_ID = 0x7f0b0003;
+	static final int DIVIDER_ID = 0x7f0b0004;
+	static final int BADGE_ID = 0x7f0b0005;
+
+	public static class BaseRowHolder {
+
+		@AndroidView(DIVIDER_ID)
+		View divider;
+
+		@AndroidView(id = "badge", required = false)
+		View badge;
+	}
+
+	public static class RowHolder extends BaseRowHolder {
+
+		@AndroidView(ICON_ID)
+		View icon;
+
+		@AndroidView(TITLE_ID)
+		View title;
+
+		@AndroidView
+		View subtitle;
+	}
+
+	private RowHolder[] holders;
+	private View[] itemViews;
+	private Context context;
+
+	@Setup
+	public void setup(){
+		context = new Context(){};
+		context.getResources().register(context.getPackageName(), "id", "subtitle", SUBTITLE_ID);
+		context.getResources().register(context.getPackageName(), "id", "badge", BADGE_ID);
+		itemViews = new View[ITEM_VIEWS];
+		for(int i = 0; i < ITEM_VIEWS; i++){
+			itemViews[i] = newItemView(context);
+		}
+		holders = new RowHolder[ROWS];
+		for(int i = 0; i < ROWS; i++){
+			holders[i] = new RowHolder();
+		}
+		AndroidAutowire.autowireHolder(holders[0], itemViews[0]);
+		AndroidAutowire.autowireFragment(holders[0], BaseRowHolder.class, itemViews[0], context);
+	}
+
+	@Benchmark
+	public Object autowireHolder(){
+		for(int i = 0; i < ROWS; i++){
+			AndroidAutowire.autowireHolder(holders[i], itemViews[i % ITEM_VIEWS]);
+		}
+		return holders;
+	}
+
+	@Benchmark
+	public Object autowireFragment(){
+		for(int i = 0; i < ROWS; i++){
+			AndroidAutowire.autowireFragment(holders[i], BaseRowHolder.class, itemViews[i % ITEM_VIEWS], context);
+		}
+		return holders;
+	}
+
+	/**
+	 * A row with an icon, a title and subtitle in a group, and a divider. The optional badge is not in the layout.
+	 */
+	static View newItemView(Context context){
+		ViewGroup row = new ViewGroup(context);
+		row.addView(newView(context, ICON_ID));
+		ViewGroup text = new ViewGroup(context);
+		text.addView(newView(context, TITLE_ID));
+		text.addView(newView(context, SUBTITLE_ID));
+		row.addView(text);
+		row.addView(newView(context, DIVIDER_ID));
+		return row;
+	}
+
+	private static View newView(Context context, int id){
+		View view = new View(context);
+		view.setId(id);
+		return view;
+	}
+}
@@ -0,0 +1,62 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.app.Activity;
+
+import com.cardinalsolutions.android.arch.autowire.AndroidAutowire;
+
+/**
+ * Warm bind time against the number of fields and the size of the view tree, for both view lookup modes.
+ * The trees have {@code fanOut^treeDepth} leaves, from 1,024 (4^5) to 262,144 (8^6).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+	@Param({"10", "100", "500"})
+	int fields;
+
+	@Param({"5", "6"})
+	int treeDepth;
+
+	@Param({"4", "8"})
+	int fanOut;
+
+	@Param({"false", "true"})
+	boolean singlePass;
+
+	private Activity activity;
+	private Class<?> baseClass;
+
+	@Setup
+	public void setup() throws Exception{
+		FixtureSpec spec = Fixtures.scalingSpec(fields);
+		activity = Fixtures.newActivity(spec, treeDepth, fanOut);
+		baseClass = spec.baseClass();
+		AndroidAutowire.setSinglePassViewLookup(singlePass);
+		AndroidAutowire.autowire(activity, baseClass);
+	}
+
+	@Benchmark
+	public Object autowire(){
+		AndroidAutowire.autowire(activity, baseClass);
+		return activity;
+	}
+}
@@ -0,0 +1,79 @@
+package com.cardinalsolutions.android.arch.autowire.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the Java source of the classes described by a {@link FixtureSpec}.
+ */
+public final class SyntheticClassGenerator {
+
+	private static final String[] SAVE_TYPES = {"int", "String", "long[]", "Integer", "double", "java.util.ArrayList<String>"};
+	private static final String[] SAVE_VALUES = {"1", "\"state\"", "new long[]{1, 2, 3}", "Integer.valueOf(2)", "0.5", "new java.util.ArrayList<String>()"};
+
+	private SyntheticClassGenerator(){
+	}
+
+	/**
+	 * Write a source file for each level of the chain.
+	 * @param spec The chain to write
+	 * @param sourceDir Root of the source tree; the files are written in the package directory below it
+	 */
+	public static void write(FixtureSpec spec, File sourceDir) throws IOException{
+		File packageDir = new File(sourceDir, FixtureSpec.PACKAGE.replace('.', File.separatorChar));
+		if(!packageDir.isDirectory() && !packageDir.mkdirs()){
+			throw new IOException("Could not create " + packageDir);
+		}
+		for(int level = 1; level <= spec.getDepth(); level++){
+			Writer writer = new FileWriter(new File(packageDir, spec.className(level) + ".java"));
+			try {
+				writer.write(classSource(spec, level));
+			} finally {
+				writer.close();
+			}
+		}
+	}
+
+	/**
+	 * @return the source of one level of the chain
+	 */
+	public static String classSource(FixtureSpec spec, int level){
+		StringBuilder source = new StringBuilder();
+		source.append("package ").append(FixtureSpec.PACKAGE).append(";\n\n");
+		source.append("import com.cardinalsolutions.android.arch.autowire.AndroidView;\n");
+		source.append("import com.cardinalsolutions.android.arch.autowire.SaveInstance;\n\n");
+		String className = spec.className(level);
+		String superclass = level == 1 ? spec.getKind().superclass : spec.className(level - 1);
+		source.append("public class ").append(className).append(" extends ").append(superclass).append(" {\n");
+		if(spec.getKind() == FixtureSpec.Kind.VIEW){
+			source.append("\tpublic ").append(className).append("(android.content.Context context){\n");
+			source.append("\t\tsuper(context);\n");
+			source.append("\t}\n");
+		}
+		int last = spec.firstField(spec.getViewFields(), level + 1);
+		for(int i = spec.firstField(spec.getViewFields(), level); i < last; i++){
+			switch(spec.resolution(i)){
+				case VALUE:
+					source.append("\t@AndroidView(").append(spec.viewId(i)).append(")\n");
+					break;
+				case ID:
+					source.append("\t@AndroidView(id=\"").append(spec.idName(i)).append("\")\n");
+					break;
+				default:
+					source.append("\t@AndroidView\n");
+					break;
+			}
+			source.append("\tprivate android.view.View ").append(spec.fieldName(i)).append(";\n");
+		}
+		last = spec.firstField(spec.getSaveFields(), level + 1);
+		for(int i = spec.firstField(spec.getSaveFields(), level); i < last; i++){
+			source.append("\t@SaveInstance\n");
+			source.append("\tprivate ").append(SAVE_TYPES[i % SAVE_TYPES.length]).append(" state").append(i)
+					.append(" = ").append(SAVE_VALUES[i % SAVE_VALUES.length]).append(";\n");
+		}
+		source.append("}\n");
+		return source.toString();
+	}
+}
@@ -0,0 +1,52 @@
+package android.app;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.Window;
+
+/**
+ * JVM stand-in for {@code android.app.Activity}. The content view is held by a stand-in {@link Window}.
+ */
+public class Activity extends Context {
+
+	private final Window window = new Window(this);
+	private boolean finishing;
+
+	protected void onCreate(Bundle savedInstanceState){
+	}
+
+	protected void onDestroy(){
+	}
+
+	public void finish(){
+		finishing = true;
+	}
+
+	public boolean isFinishing(){
+		return finishing;
+	}
+
+	protected void onSaveInstanceState(Bundle outState){
+	}
+
+	public Window getWindow(){
+		return window;
+	}
+
+	public View findViewById(int id){
+		return window.findViewById(id);
+	}
+
+	public void setContentView(View view){
+		window.setContentView(view);
+	}
+
+	/**
+	 * Inflates a layout registered with {@link LayoutInflater#register(int, LayoutInflater.StandInLayout)}.
+	 */
+	public void setContentView(int layoutResID){
+		setContentView(LayoutInflater.from(this).inflate(layoutResID, null, false));
+	}
+}
@@ -0,0 +1,70 @@
+package android.app;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.Context;
+import android.os.Bundle;
+
+/**
+ * JVM stand-in for {@code android.app.Application}. Activities do not dispatch lifecycle events on their own;
+ * the stand-in {@code dispatch} methods call the registered callbacks.
+ */
+public class Application extends Context {
+
+	public interface ActivityLifecycleCallbacks {
+		void onActivityCreated(Activity activity, Bundle savedInstanceState);
+		void onActivityStarted(Activity activity);
+		void onActivityResumed(Activity activity);
+		void onActivityPaused(Activity activity);
+		void onActivityStopped(Activity activity);
+		void onActivitySaveInstanceState(Activity activity, Bundle outState);
+		void onActivityDestroyed(Activity activity);
+	}
+
+	private final List<ActivityLifecycleCallbacks> callbacks = new ArrayList<ActivityLifecycleCallbacks>();
+
+	public void registerActivityLifecycleCallbacks(ActivityLifecycleCallbacks callback){
+		callbacks.add(callback);
+	}
+
+	public void unregisterActivityLifecycleCallbacks(ActivityLifecycleCallbacks callback){
+		callbacks.remove(callback);
+	}
+
+	/**
+	 * Stand-in only: {@code Activity.onCreate()} calls this from the framework.
+	 */
+	public void dispatchActivityCreated(Activity activity, Bundle savedInstanceState){
+		for(ActivityLifecycleCallbacks callback : callbacks){
+			callback.onActivityCreated(activity, savedInstanceState);
+		}
+	}
+
+	/**
+	 * Stand-in only: {@code Activity.onStart()} calls this from the framework.
+	 */
+	public void dispatchActivityStarted(Activity activity){
+		for(ActivityLifecycleCallbacks callback : callbacks){
+			callback.onActivityStarted(activity);
+		}
+	}
+
+	/**
+	 * Stand-in only: called by the framework after {@code Activity.onSaveInstanceState()}.
+	 */
+	public void dispatchActivitySaveInstanceState(Activity activity, Bundle outState){
+		for(ActivityLifecycleCallbacks callback : callbacks){
+			callback.onActivitySaveInstanceState(activity, outState);
+		}
+	}
+
+	/**
+	 * Stand-in only: {@code Activity.onDestroy()} calls this from the framework.
+	 */
+	public void dispatchActivityDestroyed(Activity activity){
+		for(ActivityLifecycleCallbacks callback : callbacks){
+			callback.onActivityDestroyed(activity);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package android.app;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * JVM stand-in for {@code android.app.Fragment}. Lifecycle methods are not called by a FragmentManager;
+ * call them directly.
+ */
+public class Fragment {
+
+	private Activity activity;
+
+	public final Activity getActivity(){
+		return activity;
+	}
+
+	public void onCreate(Bundle savedInstanceState){
+	}
+
+	public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState){
+		return null;
+	}
+
+	public void onSaveInstanceState(Bundle outState){
+	}
+
+	public void onDestroyView(){
+	}
+
+	/**
+	 * Stand-in only: attach the fragment to an activity.
+	 */
+	public void attachStandIn(Activity attachTo){
+		activity = attachTo;
+	}
+}
@@ -0,0 +1,33 @@
+package android.content;
+
+import android.content.res.Resources;
+
+/**
+ * JVM stand-in for {@code android.content.Context}, for benchmarking AndroidAutowire without a device.
+ * Every context shares the same stand-in {@link Resources} and package name.
+ */
+public abstract class Context {
+
+	private static Resources resources = new Resources();
+	private static String packageName = "com.example";
+
+	public Resources getResources(){
+		return resources;
+	}
+
+	public String getPackageName(){
+		return packageName;
+	}
+
+	public Context getApplicationContext(){
+		return this;
+	}
+
+	/**
+	 * Stand-in only: replace the resources and package name shared by every context.
+	 */
+	public static void setStandIn(Resources standInResources, String standInPackageName){
+		resources = standInResources;
+		packageName = standInPackageName;
+	}
+}
@@ -0,0 +1,42 @@
+package android.content;
+
+import android.content.res.Resources;
+
+/**
+ * JVM stand-in for {@code android.content.ContextWrapper}.
+ */
+public class ContextWrapper extends Context {
+
+	private Context base;
+
+	public ContextWrapper(Context base){
+		this.base = base;
+	}
+
+	public Context getBaseContext(){
+		return base;
+	}
+
+	protected void attachBaseContext(Context base){
+		this.base = base;
+	}
+
+	void setBase(Context base){
+		this.base = base;
+	}
+
+	@Override
+	public Resources getResources(){
+		return base.getResources();
+	}
+
+	@Override
+	public String getPackageName(){
+		return base.getPackageName();
+	}
+
+	@Override
+	public Context getApplicationContext(){
+		return base.getApplicationContext();
+	}
+}
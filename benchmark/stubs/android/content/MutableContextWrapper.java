@@ -0,0 +1,15 @@
+package android.content;
+
+/**
+ * JVM stand-in for {@code android.content.MutableContextWrapper}.
+ */
+public class MutableContextWrapper extends ContextWrapper {
+
+	public MutableContextWrapper(Context base){
+		super(base);
+	}
+
+	public void setBaseContext(Context base){
+		setBase(base);
+	}
+}
@@ -0,0 +1,34 @@
+package android.content.res;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stand-in for {@code android.content.res.Resources}. Resource ids are looked up by name
+ * in a table filled with {@link #register(String, String, String, int)}.
+ */
+public class Resources {
+
+	private final Map<String, Integer> identifiers = new HashMap<String, Integer>();
+	private int getIdentifierCalls;
+
+	public int getIdentifier(String name, String defType, String defPackage){
+		getIdentifierCalls++;
+		Integer id = identifiers.get(defPackage + ":" + defType + "/" + name);
+		return id == null ? 0 : id;
+	}
+
+	/**
+	 * Stand-in only: add a resource to the table.
+	 */
+	public void register(String packageName, String type, String name, int id){
+		identifiers.put(packageName + ":" + type + "/" + name, id);
+	}
+
+	/**
+	 * Stand-in only: number of calls to {@link #getIdentifier(String, String, String)}.
+	 */
+	public int getIdentifierCalls(){
+		return getIdentifierCalls;
+	}
+}
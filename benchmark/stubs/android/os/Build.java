@@ -0,0 +1,21 @@
+package android.os;
+
+/**
+ * JVM stand-in for {@code android.os.Build}.
+ */
+public class Build {
+
+	public static class VERSION {
+		/**
+		 * Not a compile time constant, as on a device. Set with the {@code android.sdk} system property; defaults to 26.
+		 */
+		public static final int SDK_INT = Integer.getInteger("android.sdk", 26);
+	}
+
+	public static class VERSION_CODES {
+		public static final int ECLAIR_MR1 = 7;
+		public static final int HONEYCOMB = 11;
+		public static final int ICE_CREAM_SANDWICH = 14;
+		public static final int JELLY_BEAN_MR2 = 18;
+	}
+}
@@ -0,0 +1,319 @@
+package android.os;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JVM stand-in for {@code android.os.Bundle}, backed by a {@link HashMap}. Typed getters return the default value
+ * when the key is missing or holds a value of another type, like the framework implementation.
+ */
+public final class Bundle {
+
+	private final Map<String, Object> map = new HashMap<String, Object>();
+
+	public Bundle(){
+	}
+
+	public Bundle(Bundle other){
+		map.putAll(other.map);
+	}
+
+	public int size(){
+		return map.size();
+	}
+
+	public boolean isEmpty(){
+		return map.isEmpty();
+	}
+
+	public void clear(){
+		map.clear();
+	}
+
+	public boolean containsKey(String key){
+		return map.containsKey(key);
+	}
+
+	public Object get(String key){
+		return map.get(key);
+	}
+
+	public void remove(String key){
+		map.remove(key);
+	}
+
+	public Set<String> keySet(){
+		return map.keySet();
+	}
+
+	public void putBoolean(String key, boolean value){
+		map.put(key, value);
+	}
+
+	public boolean getBoolean(String key){
+		return getBoolean(key, false);
+	}
+
+	public boolean getBoolean(String key, boolean defaultValue){
+		Object value = map.get(key);
+		return value instanceof Boolean ? (Boolean) value : defaultValue;
+	}
+
+	public void putByte(String key, byte value){
+		map.put(key, value);
+	}
+
+	public byte getByte(String key){
+		return getByte(key, (byte) 0);
+	}
+
+	public byte getByte(String key, byte defaultValue){
+		Object value = map.get(key);
+		return value instanceof Byte ? (Byte) value : defaultValue;
+	}
+
+	public void putChar(String key, char value){
+		map.put(key, value);
+	}
+
+	public char getChar(String key){
+		return getChar(key, (char) 0);
+	}
+
+	public char getChar(String key, char defaultValue){
+		Object value = map.get(key);
+		return value instanceof Character ? (Character) value : defaultValue;
+	}
+
+	public void putShort(String key, short value){
+		map.put(key, value);
+	}
+
+	public short getShort(String key){
+		return getShort(key, (short) 0);
+	}
+
+	public short getShort(String key, short defaultValue){
+		Object value = map.get(key);
+		return value instanceof Short ? (Short) value : defaultValue;
+	}
+
+	public void putInt(String key, int value){
+		map.put(key, value);
+	}
+
+	public int getInt(String key){
+		return getInt(key, 0);
+	}
+
+	public int getInt(String key, int defaultValue){
+		Object value = map.get(key);
+		return value instanceof Integer ? (Integer) value : defaultValue;
+	}
+
+	public void putLong(String key, long value){
+		map.put(key, value);
+	}
+
+	public long getLong(String key){
+		return getLong(key, 0L);
+	}
+
+	public long getLong(String key, long defaultValue){
+		Object value = map.get(key);
+		return value instanceof Long ? (Long) value : defaultValue;
+	}
+
+	public void putFloat(String key, float value){
+		map.put(key, value);
+	}
+
+	public float getFloat(String key){
+		return getFloat(key, 0f);
+	}
+
+	public float getFloat(String key, float defaultValue){
+		Object value = map.get(key);
+		return value instanceof Float ? (Float) value : defaultValue;
+	}
+
+	public void putDouble(String key, double value){
+		map.put(key, value);
+	}
+
+	public double getDouble(String key){
+		return getDouble(key, 0d);
+	}
+
+	public double getDouble(String key, double defaultValue){
+		Object value = map.get(key);
+		return value instanceof Double ? (Double) value : defaultValue;
+	}
+
+	public void putBooleanArray(String key, boolean[] value){
+		map.put(key, value);
+	}
+
+	public boolean[] getBooleanArray(String key){
+		Object value = map.get(key);
+		return value instanceof boolean[] ? (boolean[]) value : null;
+	}
+
+	public void putByteArray(String key, byte[] value){
+		map.put(key, value);
+	}
+
+	public byte[] getByteArray(String key){
+		Object value = map.get(key);
+		return value instanceof byte[] ? (byte[]) value : null;
+	}
+
+	public void putCharArray(String key, char[] value){
+		map.put(key, value);
+	}
+
+	public char[] getCharArray(String key){
+		Object value = map.get(key);
+		return value instanceof char[] ? (char[]) value : null;
+	}
+
+	public void putShortArray(String key, short[] value){
+		map.put(key, value);
+	}
+
+	public short[] getShortArray(String key){
+		Object value = map.get(key);
+		return value instanceof short[] ? (short[]) value : null;
+	}
+
+	public void putIntArray(String key, int[] value){
+		map.put(key, value);
+	}
+
+	public int[] getIntArray(String key){
+		Object value = map.get(key);
+		return value instanceof int[] ? (int[]) value : null;
+	}
+
+	public void putLongArray(String key, long[] value){
+		map.put(key, value);
+	}
+
+	public long[] getLongArray(String key){
+		Object value = map.get(key);
+		return value instanceof long[] ? (long[]) value : null;
+	}
+
+	public void putFloatArray(String key, float[] value){
+		map.put(key, value);
+	}
+
+	public float[] getFloatArray(String key){
+		Object value = map.get(key);
+		return value instanceof float[] ? (float[]) value : null;
+	}
+
+	public void putDoubleArray(String key, double[] value){
+		map.put(key, value);
+	}
+
+	public double[] getDoubleArray(String key){
+		Object value = map.get(key);
+		return value instanceof double[] ? (double[]) value : null;
+	}
+
+	public void putStringArray(String key, String[] value){
+		map.put(key, value);
+	}
+
+	public String[] getStringArray(String key){
+		Object value = map.get(key);
+		return value instanceof String[] ? (String[]) value : null;
+	}
+
+	public void putString(String key, String value){
+		map.put(key, value);
+	}
+
+	public String getString(String key){
+		Object value = map.get(key);
+		return value instanceof String ? (String) value : null;
+	}
+
+	public void putParcelable(String key, Parcelable value){
+		map.put(key, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T extends Parcelable> T getParcelable(String key){
+		Object value = map.get(key);
+		return value instanceof Parcelable ? (T) value : null;
+	}
+
+	public void putSerializable(String key, Serializable value){
+		map.put(key, value);
+	}
+
+	public Serializable getSerializable(String key){
+		Object value = map.get(key);
+		return value instanceof Serializable ? (Serializable) value : null;
+	}
+
+	public void putBundle(String key, Bundle value){
+		map.put(key, value);
+	}
+
+	public Bundle getBundle(String key){
+		Object value = map.get(key);
+		return value instanceof Bundle ? (Bundle) value : null;
+	}
+
+	/**
+	 * Stand-in only writes the estimated parceled size of the values, see {@link Parcel}.
+	 */
+	public void writeToParcel(Parcel parcel, int flags){
+		parcel.skip(8);
+		for(Map.Entry<String, Object> entry : map.entrySet()){
+			parcel.skip(8 + entry.getKey().length() * 2 + sizeOf(entry.getValue()));
+		}
+	}
+
+	private static int sizeOf(Object value){
+		if(value instanceof String){
+			return 4 + ((String) value).length() * 2;
+		}else if(value instanceof Bundle){
+			Parcel parcel = Parcel.obtain();
+			try {
+				((Bundle) value).writeToParcel(parcel, 0);
+				return parcel.dataSize();
+			} finally {
+				parcel.recycle();
+			}
+		}else if(value instanceof byte[]){
+			//Bytes are packed, and padded to 4
+			return 4 + (((byte[]) value).length + 3) / 4 * 4;
+		}else if(value instanceof long[] || value instanceof double[]){
+			return 4 + Array.getLength(value) * 8;
+		}else if(value != null && value.getClass().isArray() && value.getClass().getComponentType().isPrimitive()){
+			//Every other primitive is written as an int
+			return 4 + Array.getLength(value) * 4;
+		}else if(value instanceof Serializable && !(value instanceof Number || value instanceof Boolean || value instanceof Character)){
+			try {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ObjectOutputStream out = new ObjectOutputStream(bytes);
+				out.writeObject(value);
+				out.close();
+				return bytes.size();
+			} catch (IOException e){
+				return 16;
+			}
+		}
+		return 8;
+	}
+}
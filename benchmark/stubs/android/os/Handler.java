@@ -0,0 +1,28 @@
+package android.os;
+
+/**
+ * JVM stand-in for {@code android.os.Handler}. Posted messages are queued on the stand-in {@link Looper}.
+ */
+public class Handler {
+
+	private final Looper looper;
+
+	public Handler(Looper looper){
+		if(looper == null){
+			throw new RuntimeException("Can't create handler inside thread that has not called Looper.prepare()");
+		}
+		this.looper = looper;
+	}
+
+	public Handler(){
+		this(Looper.myLooper());
+	}
+
+	public final Looper getLooper(){
+		return looper;
+	}
+
+	public final boolean post(Runnable r){
+		return looper.queue.offer(r);
+	}
+}
@@ -0,0 +1,57 @@
+package android.os;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM stand-in for {@code android.os.Looper}. Messages are not dispatched by a loop; a test drains the main looper
+ * with {@link #runNextStandIn(long)}, and runs its idle handlers, on the thread that called {@link #prepareMainLooper()}.
+ */
+public final class Looper {
+
+	private static final ThreadLocal<Looper> threadLooper = new ThreadLocal<Looper>();
+	private static volatile Looper mainLooper;
+
+	final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+	private final MessageQueue messageQueue = new MessageQueue();
+
+	private Looper(){
+	}
+
+	public static void prepareMainLooper(){
+		if(mainLooper == null){
+			mainLooper = new Looper();
+		}
+		threadLooper.set(mainLooper);
+	}
+
+	public static Looper getMainLooper(){
+		return mainLooper;
+	}
+
+	public static Looper myLooper(){
+		return threadLooper.get();
+	}
+
+	public static MessageQueue myQueue(){
+		return myLooper().messageQueue;
+	}
+
+	public MessageQueue getQueue(){
+		return messageQueue;
+	}
+
+	/**
+	 * Stand-in only: run the next posted message, waiting up to the timeout for one to be posted.
+	 * @return false if no message was posted in time
+	 */
+	public boolean runNextStandIn(long timeoutMillis) throws InterruptedException{
+		Runnable message = queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+		if(message == null){
+			return false;
+		}
+		message.run();
+		return true;
+	}
+}
@@ -0,0 +1,41 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for {@code android.os.MessageQueue}. Only idle handlers are supported; a test runs them with
+ * {@link #runIdleStandIn()}.
+ */
+public final class MessageQueue {
+
+	public interface IdleHandler {
+		boolean queueIdle();
+	}
+
+	private final List<IdleHandler> idleHandlers = new ArrayList<IdleHandler>();
+
+	MessageQueue(){
+	}
+
+	public void addIdleHandler(IdleHandler handler){
+		idleHandlers.add(handler);
+	}
+
+	public void removeIdleHandler(IdleHandler handler){
+		idleHandlers.remove(handler);
+	}
+
+	/**
+	 * Stand-in only: the queue is idle, run each idle handler once, removing those that return false.
+	 * @return the number of idle handlers still registered
+	 */
+	public int runIdleStandIn(){
+		for(IdleHandler handler : new ArrayList<IdleHandler>(idleHandlers)){
+			if(!handler.queueIdle()){
+				idleHandlers.remove(handler);
+			}
+		}
+		return idleHandlers.size();
+	}
+}
@@ -0,0 +1,28 @@
+package android.os;
+
+/**
+ * JVM stand-in for {@code android.os.Parcel}. Nothing is written; only the size of the data is tracked.
+ */
+public final class Parcel {
+
+	private int dataSize;
+
+	private Parcel(){
+	}
+
+	public static Parcel obtain(){
+		return new Parcel();
+	}
+
+	public int dataSize(){
+		return dataSize;
+	}
+
+	public void recycle(){
+		dataSize = 0;
+	}
+
+	void skip(int bytes){
+		dataSize += bytes;
+	}
+}
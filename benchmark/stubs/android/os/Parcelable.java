@@ -0,0 +1,7 @@
+package android.os;
+
+/**
+ * JVM stand-in for {@code android.os.Parcelable}.
+ */
+public interface Parcelable {
+}
@@ -0,0 +1,49 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for {@code android.os.Trace}. Sections are recorded so they can be checked, as
+ * {@code "B:<name>"} when a section begins and {@code "E"} when it ends.
+ */
+public final class Trace {
+
+	private static final List<String> events = new ArrayList<String>();
+
+	private Trace(){
+	}
+
+	public static void beginSection(String sectionName){
+		if(sectionName.length() > 127){
+			throw new IllegalArgumentException("sectionName is too long");
+		}
+		synchronized(events){
+			events.add("B:" + sectionName);
+		}
+	}
+
+	public static void endSection(){
+		synchronized(events){
+			events.add("E");
+		}
+	}
+
+	/**
+	 * Stand-in only: the sections recorded since the last {@link #clearEvents()}.
+	 */
+	public static List<String> getEvents(){
+		synchronized(events){
+			return new ArrayList<String>(events);
+		}
+	}
+
+	/**
+	 * Stand-in only: forget the recorded sections.
+	 */
+	public static void clearEvents(){
+		synchronized(events){
+			events.clear();
+		}
+	}
+}
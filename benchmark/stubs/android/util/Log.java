@@ -0,0 +1,33 @@
+package android.util;
+
+/**
+ * JVM stand-in for {@code android.util.Log}, writing warnings and errors to {@code System.err}.
+ */
+public final class Log {
+
+	private Log(){
+	}
+
+	public static int d(String tag, String msg){
+		return 0;
+	}
+
+	public static int i(String tag, String msg){
+		return 0;
+	}
+
+	public static int w(String tag, String msg){
+		System.err.println("W/" + tag + ": " + msg);
+		return 0;
+	}
+
+	public static int w(String tag, String msg, Throwable tr){
+		System.err.println("W/" + tag + ": " + msg + " " + tr);
+		return 0;
+	}
+
+	public static int e(String tag, String msg, Throwable tr){
+		System.err.println("E/" + tag + ": " + msg + " " + tr);
+		return 0;
+	}
+}
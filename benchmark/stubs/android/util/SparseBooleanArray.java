@@ -0,0 +1,65 @@
+package android.util;
+
+import java.util.Arrays;
+
+/**
+ * JVM stand-in for {@code android.util.SparseBooleanArray}.
+ */
+public class SparseBooleanArray {
+
+	private int[] keys;
+	private boolean[] values;
+	private int size;
+
+	public SparseBooleanArray(){
+		this(10);
+	}
+
+	public SparseBooleanArray(int initialCapacity){
+		keys = new int[Math.max(initialCapacity, 1)];
+		values = new boolean[keys.length];
+	}
+
+	public boolean get(int key){
+		return get(key, false);
+	}
+
+	public boolean get(int key, boolean valueIfKeyNotFound){
+		int i = Arrays.binarySearch(keys, 0, size, key);
+		return i < 0 ? valueIfKeyNotFound : values[i];
+	}
+
+	public void put(int key, boolean value){
+		int i = Arrays.binarySearch(keys, 0, size, key);
+		if(i >= 0){
+			values[i] = value;
+			return;
+		}
+		i = ~i;
+		if(size == keys.length){
+			keys = Arrays.copyOf(keys, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(values, i, values, i + 1, size - i);
+		keys[i] = key;
+		values[i] = value;
+		size++;
+	}
+
+	public int indexOfKey(int key){
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	public int keyAt(int index){
+		return keys[index];
+	}
+
+	public int size(){
+		return size;
+	}
+
+	public void clear(){
+		size = 0;
+	}
+}
@@ -0,0 +1,88 @@
+package android.view;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import android.content.Context;
+
+/**
+ * JVM stand-in for {@code android.view.LayoutInflater}. There is no XML: each layout id is registered with a
+ * {@link StandInLayout} that builds the views.
+ * <br /><br />
+ * Like the framework, {@link #from(Context)} returns the same inflater for each context, and an inflater is not
+ * thread-safe: inflating with an instance that another thread is inflating with throws {@link IllegalStateException}.
+ */
+public class LayoutInflater {
+
+	/**
+	 * Stand-in only: builds the views of a layout.
+	 */
+	public interface StandInLayout {
+		View create(Context context);
+	}
+
+	private static final Map<Integer, StandInLayout> layouts = new ConcurrentHashMap<Integer, StandInLayout>();
+	/** Guarded by itself */
+	private static final Map<Context, LayoutInflater> inflaters = new WeakHashMap<Context, LayoutInflater>();
+
+	private final Context context;
+	private final AtomicReference<Thread> inflatingThread = new AtomicReference<Thread>();
+
+	protected LayoutInflater(Context context){
+		this.context = context;
+	}
+
+	public static LayoutInflater from(Context context){
+		synchronized(inflaters){
+			LayoutInflater inflater = inflaters.get(context);
+			if(inflater == null){
+				inflater = new LayoutInflater(context);
+				inflaters.put(context, inflater);
+			}
+			return inflater;
+		}
+	}
+
+	public LayoutInflater cloneInContext(Context newContext){
+		return new LayoutInflater(newContext);
+	}
+
+	public Context getContext(){
+		return context;
+	}
+
+	public View inflate(int resource, ViewGroup root){
+		return inflate(resource, root, root != null);
+	}
+
+	public View inflate(int resource, ViewGroup root, boolean attachToRoot){
+		StandInLayout layout = layouts.get(resource);
+		if(layout == null){
+			throw new IllegalArgumentException("No stand-in layout registered for " + resource);
+		}
+		Thread current = Thread.currentThread();
+		if(!inflatingThread.compareAndSet(null, current) && inflatingThread.get() != current){
+			throw new IllegalStateException("LayoutInflater is being used by " + inflatingThread.get().getName());
+		}
+		View view;
+		try {
+			view = layout.create(context);
+		} finally {
+			inflatingThread.compareAndSet(current, null);
+		}
+		if(root != null && attachToRoot){
+			root.addView(view);
+			return root;
+		}
+		return view;
+	}
+
+	/**
+	 * Stand-in only: register the views of a layout.
+	 */
+	public static void register(int resource, StandInLayout layout){
+		layouts.put(resource, layout);
+	}
+}
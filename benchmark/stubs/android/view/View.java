@@ -0,0 +1,47 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * JVM stand-in for {@code android.view.View}. {@link #findViewById(int)} is a depth first search,
+ * like the framework implementation.
+ */
+public class View {
+
+	public static final int NO_ID = -1;
+
+	private final Context context;
+	private int id = NO_ID;
+	ViewGroup parent;
+
+	public View(Context context){
+		this.context = context;
+	}
+
+	public Context getContext(){
+		return context;
+	}
+
+	public int getId(){
+		return id;
+	}
+
+	public void setId(int id){
+		this.id = id;
+	}
+
+	public ViewParent getParent(){
+		return parent;
+	}
+
+	public final View findViewById(int id){
+		if(id == NO_ID){
+			return null;
+		}
+		return findViewTraversal(id);
+	}
+
+	protected View findViewTraversal(int id){
+		return id == this.id ? this : null;
+	}
+}
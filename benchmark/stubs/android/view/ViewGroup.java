@@ -0,0 +1,62 @@
+package android.view;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.Context;
+
+/**
+ * JVM stand-in for {@code android.view.ViewGroup}. The real class is abstract; the stand-in can be used directly
+ * as a plain container.
+ */
+public class ViewGroup extends View implements ViewParent {
+
+	private final List<View> children = new ArrayList<View>();
+
+	public ViewGroup(Context context){
+		super(context);
+	}
+
+	public int getChildCount(){
+		return children.size();
+	}
+
+	public View getChildAt(int index){
+		return index < 0 || index >= children.size() ? null : children.get(index);
+	}
+
+	public void addView(View child){
+		if(child.parent != null){
+			throw new IllegalStateException("The specified child already has a parent.");
+		}
+		child.parent = this;
+		children.add(child);
+	}
+
+	public void removeView(View child){
+		if(children.remove(child)){
+			child.parent = null;
+		}
+	}
+
+	public void removeAllViews(){
+		for(View child : children){
+			child.parent = null;
+		}
+		children.clear();
+	}
+
+	@Override
+	protected View findViewTraversal(int id){
+		if(id == getId()){
+			return this;
+		}
+		for(int i = 0; i < children.size(); i++){
+			View view = children.get(i).findViewTraversal(id);
+			if(view != null){
+				return view;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,7 @@
+package android.view;
+
+/**
+ * JVM stand-in for {@code android.view.ViewParent}.
+ */
+public interface ViewParent {
+}
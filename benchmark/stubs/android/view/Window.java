@@ -0,0 +1,44 @@
+package android.view;
+
+import android.content.Context;
+import android.os.Bundle;
+
+/**
+ * JVM stand-in for {@code android.view.Window}, holding a decor view with the content view as its only child.
+ */
+public class Window {
+
+	private final ViewGroup decor;
+	private Bundle restoredHierarchyState;
+
+	public Window(Context context){
+		decor = new ViewGroup(context);
+	}
+
+	public View getDecorView(){
+		return decor;
+	}
+
+	public View findViewById(int id){
+		return decor.findViewById(id);
+	}
+
+	public void setContentView(View view){
+		decor.removeAllViews();
+		decor.addView(view);
+	}
+
+	/**
+	 * Stand-in only records the state, as the stand-in views have no state of their own.
+	 */
+	public void restoreHierarchyState(Bundle savedInstanceState){
+		restoredHierarchyState = savedInstanceState;
+	}
+
+	/**
+	 * Stand-in only: the state last given to {@link #restoreHierarchyState(Bundle)}.
+	 */
+	public Bundle getRestoredHierarchyStateStandIn(){
+		return restoredHierarchyState;
+	}
+}
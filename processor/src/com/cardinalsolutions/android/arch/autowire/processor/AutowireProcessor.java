@@ -0,0 +1,481 @@
+package com.cardinalsolutions.android.arch.autowire.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates an {@code AutowireBinder} for every class using the
+ * {@code @AndroidView}, {@code @AndroidLayout} or {@code @SaveInstance} annotations.
+ * <br /><br />
+ * For a class {@code com.example.MainActivity}, the binder {@code com.example.MainActivity_Autowire} is generated.
+ * It finds the views with direct {@code findViewById()} calls and writes the fields directly, so no reflection is needed
+ * when the class is autowired. The binder lives in the same package as the annotated class, so it can only write fields
+ * that are not private. Classes with private annotated fields are skipped, and will continue to be autowired with
+ * reflection at runtime.
+ * <br /><br />
+ * The processor also writes the index resource {@value #INDEX_RESOURCE}, listing every annotated class (including
+ * the classes that are skipped) with its number of {@code @AndroidView} fields, so they can be found at runtime without scanning
+ * the classpath.
+ * <br /><br />
+ * The processor is optional. Add the processor jar to the annotation processor path of the application to enable it.
+ */
+@SupportedAnnotationTypes({
+	AutowireProcessor.ANDROID_VIEW,
+	AutowireProcessor.ANDROID_LAYOUT,
+	AutowireProcessor.SAVE_INSTANCE
+})
+public class AutowireProcessor extends AbstractProcessor {
+
+	static final String PACKAGE = "com.cardinalsolutions.android.arch.autowire";
+	static final String ANDROID_VIEW = PACKAGE + ".AndroidView";
+	static final String ANDROID_LAYOUT = PACKAGE + ".AndroidLayout";
+	static final String SAVE_INSTANCE = PACKAGE + ".SaveInstance";
+	static final String BINDER = PACKAGE + ".AutowireBinder";
+	static final String LAZY_VIEW = PACKAGE + ".LazyView";
+	static final String BUNDLER = PACKAGE + ".Bundler";
+	static final String VIEW = "android.view.View";
+	static final String OBJECT = "java.lang.Object";
+	static final String BINDER_SUFFIX = "_Autowire";
+	static final String INDEX_RESOURCE = "META-INF/com.cardinalsolutions.android.arch.autowire.index";
+	static final String INDEX_HEADER = "# AndroidAutowire index 2";
+
+	/** Index lines by binary class name, collected over all rounds and written in the last round */
+	private final Map<String, String> index = new TreeMap<String, String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion(){
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv){
+		Map<TypeElement, AnnotatedClass> classes = new LinkedHashMap<TypeElement, AnnotatedClass>();
+		TypeElement viewType = processingEnv.getElementUtils().getTypeElement(VIEW);
+		for(TypeElement annotation : annotations){
+			String annotationName = annotation.getQualifiedName().toString();
+			for(Element element : roundEnv.getElementsAnnotatedWith(annotation)){
+				if(element.getKind() == ElementKind.FIELD){
+					AnnotatedClass annotatedClass = getAnnotatedClass(classes, (TypeElement) element.getEnclosingElement());
+					if(ANDROID_VIEW.equals(annotationName)){
+						//Fields that are not views are skipped, the same as at runtime
+						if(viewType == null || isLazyView(element.asType())
+								|| processingEnv.getTypeUtils().isAssignable(element.asType(), viewType.asType())){
+							annotatedClass.views.add((VariableElement) element);
+						}
+					}else if(SAVE_INSTANCE.equals(annotationName)){
+						annotatedClass.saveFields.add((VariableElement) element);
+					}
+				}else if(element.getKind().isClass() && ANDROID_LAYOUT.equals(annotationName)){
+					getAnnotatedClass(classes, (TypeElement) element).layout = getAnnotation(element, ANDROID_LAYOUT);
+				}
+			}
+		}
+		for(AnnotatedClass annotatedClass : classes.values()){
+			if(canGenerate(annotatedClass)){
+				writeBinder(annotatedClass);
+			}
+			addToIndex(annotatedClass);
+		}
+		if(roundEnv.processingOver()){
+			writeIndex();
+		}
+		//Claim the annotations, no other processor needs them. Claiming does not affect reading them at runtime.
+		return true;
+	}
+
+	private AnnotatedClass getAnnotatedClass(Map<TypeElement, AnnotatedClass> classes, TypeElement type){
+		AnnotatedClass annotatedClass = classes.get(type);
+		if(annotatedClass == null){
+			annotatedClass = new AnnotatedClass(type);
+			classes.put(type, annotatedClass);
+		}
+		return annotatedClass;
+	}
+
+	/**
+	 * The binder is generated in the package of the annotated class, so the class and all of its annotated fields
+	 * must be visible from that package.
+	 */
+	private boolean canGenerate(AnnotatedClass annotatedClass){
+		Element element = annotatedClass.type;
+		while(element.getKind() != ElementKind.PACKAGE){
+			if(element.getModifiers().contains(Modifier.PRIVATE)){
+				note(annotatedClass.type, "is private, it will be autowired with reflection");
+				return false;
+			}
+			element = element.getEnclosingElement();
+		}
+		List<VariableElement> fields = new ArrayList<VariableElement>(annotatedClass.views);
+		fields.addAll(annotatedClass.saveFields);
+		for(VariableElement field : fields){
+			if(field.getModifiers().contains(Modifier.PRIVATE)){
+				note(annotatedClass.type, "has private field " + field.getSimpleName() + ", it will be autowired with reflection");
+				return false;
+			}
+			if(field.getModifiers().contains(Modifier.FINAL)){
+				note(annotatedClass.type, "has final field " + field.getSimpleName() + ", it will be autowired with reflection");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void note(TypeElement type, String message){
+		processingEnv.getMessager().printMessage(Kind.NOTE, "AndroidAutowire: " + type.getQualifiedName() + " " + message, type);
+	}
+
+	/**
+	 * Index line: binary class name and number of {@code @AndroidView} fields.
+	 */
+	private void addToIndex(AnnotatedClass annotatedClass){
+		String binaryName = processingEnv.getElementUtils().getBinaryName(annotatedClass.type).toString();
+		index.put(binaryName, binaryName + "\t" + annotatedClass.views.size());
+	}
+
+	private void writeIndex(){
+		if(index.isEmpty()){
+			return;
+		}
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+			Writer writer = new OutputStreamWriter(file.openOutputStream(), "UTF-8");
+			try {
+				writer.write(INDEX_HEADER + "\n");
+				for(String line : index.values()){
+					writer.write(line + "\n");
+				}
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e){
+			//The index is only an optimization, the app still works without it
+			processingEnv.getMessager().printMessage(Kind.WARNING, "AndroidAutowire: Could not write " + INDEX_RESOURCE + ". " + e.getMessage());
+		}
+	}
+
+	private void writeBinder(AnnotatedClass annotatedClass){
+		TypeElement type = annotatedClass.type;
+		String packageName = getPackage(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String binderName = binaryName.substring(packageName.length() == 0 ? 0 : packageName.length() + 1) + BINDER_SUFFIX;
+		String targetType = erasure(type.asType());
+
+		StringBuilder source = new StringBuilder();
+		source.append("// Generated by AndroidAutowire. Do not modify.\n");
+		if(packageName.length() > 0){
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(binderName).append(" extends ").append(BINDER).append("<").append(targetType).append("> {\n\n");
+
+		if(!annotatedClass.saveFields.isEmpty()){
+			List<String> keys = new ArrayList<String>();
+			for(VariableElement field : annotatedClass.saveFields){
+				keys.add(binaryName + field.getSimpleName());
+			}
+			source.append("\tprivate static final String[] KEYS = {").append(literals(keys)).append("};\n");
+			source.append("\tprivate static final String[] COMPACT_KEYS = {").append(literals(compactKeys(keys))).append("};\n\n");
+		}
+
+		source.append("\t@Override\n");
+		source.append("\tpublic int getLayoutResource(){\n");
+		if(annotatedClass.layout == null){
+			source.append("\t\treturn NO_LAYOUT;\n");
+		}else{
+			source.append("\t\treturn ").append(getInt(annotatedClass.layout, "value")).append(";\n");
+		}
+		source.append("\t}\n\n");
+
+		if(!annotatedClass.saveFields.isEmpty()){
+			source.append("\t@Override\n");
+			source.append("\tpublic int getSaveFieldCount(){\n");
+			source.append("\t\treturn KEYS.length;\n");
+			source.append("\t}\n\n");
+		}
+
+		source.append("\t@Override\n");
+		source.append("\tpublic void autowire(").append(targetType).append(" target, android.view.View contentView, android.content.Context context){\n");
+		if(!annotatedClass.views.isEmpty()){
+			source.append("\t\tandroid.view.View view;\n");
+		}
+		for(VariableElement field : annotatedClass.views){
+			AnnotationMirror androidView = getAnnotation(field, ANDROID_VIEW);
+			String fieldName = field.getSimpleName().toString();
+			int value = getInt(androidView, "value");
+			boolean required = Boolean.TRUE.equals(getValue(androidView, "required"));
+			String id = (String) getValue(androidView, "id");
+			String viewId = value != 0 ? String.valueOf(value) : "context, " + literal(id.length() == 0 ? fieldName : id);
+			if(isLazyView(field.asType())){
+				source.append("\t\ttarget.").append(fieldName).append(" = lazyView(contentView, ").append(viewId)
+						.append(", ").append(literal(fieldName)).append(", ").append(required).append(");\n");
+				continue;
+			}
+			source.append("\t\tview = findView(contentView, ").append(viewId)
+					.append(", ").append(literal(fieldName)).append(", ").append(required).append(");\n");
+			source.append("\t\tif(view != null){\n");
+			String fieldType = erasure(field.asType());
+			source.append("\t\t\ttarget.").append(fieldName).append(" = ")
+					.append(VIEW.equals(fieldType) ? "" : "(" + fieldType + ") ").append("view;\n");
+			source.append("\t\t}\n");
+		}
+		source.append("\t}\n\n");
+
+		if(!annotatedClass.views.isEmpty()){
+			source.append("\t@Override\n");
+			source.append("\tpublic void unbind(").append(targetType).append(" target){\n");
+			for(VariableElement field : annotatedClass.views){
+				source.append("\t\ttarget.").append(field.getSimpleName()).append(" = null;\n");
+			}
+			source.append("\t}\n\n");
+		}
+
+		source.append("\t@Override\n");
+		source.append("\tpublic void saveFields(").append(targetType).append(" target, android.os.Bundle bundle){\n");
+		if(!annotatedClass.saveFields.isEmpty()){
+			source.append("\t\tString key;\n");
+		}
+		for(int i = 0; i < annotatedClass.saveFields.size(); i++){
+			VariableElement field = annotatedClass.saveFields.get(i);
+			String fieldName = field.getSimpleName().toString();
+			String key = "key";
+			source.append("\t\tkey = saveKey(bundle, KEYS[").append(i).append("], COMPACT_KEYS[").append(i).append("]);\n");
+			String bundleType = getBundleType(field.asType());
+			String bundler = getBundler(field);
+			if(bundler != null){
+				source.append("\t\tputBundled(bundle, ").append(key).append(", target.").append(fieldName)
+						.append(", ").append(bundler).append(".class);\n");
+			}else if(bundleType == null){
+				source.append("\t\tputValue(bundle, ").append(key).append(", target.").append(fieldName)
+						.append(", ").append(erasure(field.asType())).append(".class);\n");
+			}else if(field.asType().getKind().isPrimitive()){
+				source.append("\t\tbundle.put").append(bundleType).append("(").append(key).append(", target.").append(fieldName).append(");\n");
+			}else{
+				source.append("\t\tif(target.").append(fieldName).append(" != null){\n");
+				source.append("\t\t\tbundle.put").append(bundleType).append("(").append(key).append(", target.").append(fieldName).append(");\n");
+				source.append("\t\t}\n");
+			}
+			if(!field.asType().getKind().isPrimitive()){
+				//Primitive fields are always put in the Bundle
+				source.append("\t\treserveKey(bundle, ").append(key).append(");\n");
+			}
+		}
+		source.append("\t}\n\n");
+
+		source.append("\t@Override\n");
+		source.append("\tpublic void loadFields(").append(targetType).append(" target, android.os.Bundle bundle){\n");
+		if(!annotatedClass.saveFields.isEmpty()){
+			source.append("\t\tString key;\n");
+			source.append("\t\tObject value;\n");
+		}
+		for(int i = 0; i < annotatedClass.saveFields.size(); i++){
+			VariableElement field = annotatedClass.saveFields.get(i);
+			String fieldName = field.getSimpleName().toString();
+			String key = "key";
+			source.append("\t\tkey = loadKey(bundle, KEYS[").append(i).append("], COMPACT_KEYS[").append(i).append("]);\n");
+			String bundleType = getBundleType(field.asType());
+			String bundler = getBundler(field);
+			if(bundler != null){
+				source.append("\t\tvalue = getBundled(bundle, ").append(key).append(", ").append(bundler).append(".class);\n");
+			}else if(bundleType == null){
+				source.append("\t\tvalue = getValue(bundle, ").append(key).append(", ").append(erasure(field.asType())).append(".class);\n");
+			}else if(field.asType().getKind().isPrimitive()){
+				source.append("\t\tif(bundle.containsKey(").append(key).append(")){\n");
+				source.append("\t\t\ttarget.").append(fieldName).append(" = bundle.get").append(bundleType).append("(").append(key).append(");\n");
+				source.append("\t\t}\n");
+				continue;
+			}else{
+				source.append("\t\tvalue = bundle.get").append(bundleType).append("(").append(key).append(");\n");
+			}
+			source.append("\t\tif(value != null){\n");
+			String valueType = boxedErasure(field.asType());
+			source.append("\t\t\ttarget.").append(fieldName).append(" = ")
+					.append(OBJECT.equals(valueType) ? "" : "(" + valueType + ") ").append("value;\n");
+			source.append("\t\t}\n");
+		}
+		source.append("\t}\n");
+		source.append("}\n");
+
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(
+					packageName.length() == 0 ? binderName : packageName + "." + binderName, type);
+			Writer writer = file.openWriter();
+			try {
+				writer.write(source.toString());
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e){
+			processingEnv.getMessager().printMessage(Kind.ERROR, "AndroidAutowire: Could not write binder " + binderName + ". " + e.getMessage(), type);
+		}
+	}
+
+	/**
+	 * Get the suffix of the typed Bundle methods to use for a field, such as "Int" for {@code putInt()} and {@code getInt()}.
+	 * Boxed primitives are not included, as they may be null.
+	 * @return the suffix, or null if the value must be checked at runtime
+	 */
+	private String getBundleType(TypeMirror type){
+		TypeMirror componentType = null;
+		if(type.getKind() == TypeKind.ARRAY){
+			componentType = ((ArrayType) type).getComponentType();
+		}
+		String typeName = getBundleTypeName(componentType == null ? type : componentType);
+		if(componentType != null){
+			return typeName == null || typeName.equals("Parcelable") ? null : typeName + "Array";
+		}
+		return typeName;
+	}
+
+	private String getBundleTypeName(TypeMirror type){
+		switch(type.getKind()){
+			case BOOLEAN: return "Boolean";
+			case BYTE: return "Byte";
+			case CHAR: return "Char";
+			case SHORT: return "Short";
+			case INT: return "Int";
+			case LONG: return "Long";
+			case FLOAT: return "Float";
+			case DOUBLE: return "Double";
+			case DECLARED:
+				if(erasure(type).equals("java.lang.String")){
+					return "String";
+				}
+				TypeElement parcelable = processingEnv.getElementUtils().getTypeElement("android.os.Parcelable");
+				if(parcelable != null && processingEnv.getTypeUtils().isAssignable(type, parcelable.asType())){
+					return "Parcelable";
+				}
+				return null;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * @return the erasure of the {@code Bundler} named by the field's {@code @SaveInstance} annotation, or null if it
+	 * does not name one
+	 */
+	private String getBundler(VariableElement field){
+		Object bundler = getValue(getAnnotation(field, SAVE_INSTANCE), "bundler");
+		if(!(bundler instanceof TypeMirror)){
+			return null;
+		}
+		String bundlerType = erasure((TypeMirror) bundler);
+		return bundlerType.equals(BUNDLER) ? null : bundlerType;
+	}
+
+	private PackageElement getPackage(Element element){
+		while(element.getKind() != ElementKind.PACKAGE){
+			element = element.getEnclosingElement();
+		}
+		return (PackageElement) element;
+	}
+
+	private boolean isLazyView(TypeMirror type){
+		return erasure(type).equals(LAZY_VIEW);
+	}
+
+	private String erasure(TypeMirror type){
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private String boxedErasure(TypeMirror type){
+		if(type.getKind().isPrimitive()){
+			return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+		}
+		return erasure(type);
+	}
+
+	private static AnnotationMirror getAnnotation(Element element, String annotationName){
+		for(AnnotationMirror mirror : element.getAnnotationMirrors()){
+			TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+			if(annotationType.getQualifiedName().contentEquals(annotationName)){
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private Object getValue(AnnotationMirror mirror, String name){
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+		for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()){
+			if(entry.getKey().getSimpleName().contentEquals(name)){
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	private int getInt(AnnotationMirror mirror, String name){
+		Object value = getValue(mirror, name);
+		return value == null ? 0 : ((Integer) value).intValue();
+	}
+
+	/**
+	 * Compact Bundle keys, using the same algorithm as the runtime: '#' followed by the base 36 hash code
+	 * of the full key. Collisions are resolved when the fields are saved, see {@code AutowireBinder.saveKey()}.
+	 */
+	private static List<String> compactKeys(List<String> keys){
+		List<String> compactKeys = new ArrayList<String>();
+		for(String key : keys){
+			compactKeys.add("#" + Integer.toString(key.hashCode(), Character.MAX_RADIX));
+		}
+		return compactKeys;
+	}
+
+	private static String literals(List<String> values){
+		StringBuilder literals = new StringBuilder();
+		for(String value : values){
+			if(literals.length() > 0){
+				literals.append(", ");
+			}
+			literals.append(literal(value));
+		}
+		return literals.toString();
+	}
+
+	private static String literal(String value){
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	/**
+	 * The annotations found on a single class
+	 */
+	private static final class AnnotatedClass {
+		final TypeElement type;
+		final List<VariableElement> views = new ArrayList<VariableElement>();
+		final List<VariableElement> saveFields = new ArrayList<VariableElement>();
+		AnnotationMirror layout;
+
+		AnnotatedClass(TypeElement type){
+			this.type = type;
+		}
+	}
+}
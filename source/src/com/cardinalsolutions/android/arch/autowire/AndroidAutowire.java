@@ -1,13 +1,18 @@
 package com.cardinalsolutions.android.arch.autowire;
 
-import java.io.Serializable;
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import android.app.Activity;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.os.Bundle;
-import android.os.Parcelable;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
 import android.view.View;
 
 /**
@@ -76,6 +81,239 @@ import android.view.View;
  */
 public class AndroidAutowire {
 
+	private static volatile boolean singlePassViewLookup = false;
+	private static volatile boolean compactBundleKeys = false;
+	private static volatile boolean binaryBundleState = false;
+
+	/**
+	 * Turn on single pass view lookup. By default each {@link AndroidView} field is found with its own call to
+	 * {@code findViewById()}, which searches the whole view hierarchy every time. With single pass view lookup, the
+	 * hierarchy is walked once, collecting every view needed by all of the classes in the inheritance chain, and the
+	 * fields are then assigned from the collected views. This is faster for layouts with many autowired views.
+	 * <br /><br />
+	 * Applies to {@code autowire()}, {@code autowireFragment()} and {@code autowireView()}. Classes with a generated
+	 * {@link AutowireBinder} keep using their own {@code findViewById()} calls.
+	 * @param enabled true to find all views with a single walk of the view hierarchy. Defaults to false.
+	 */
+	public static void setSinglePassViewLookup(boolean enabled){
+		singlePassViewLookup = enabled;
+	}
+
+	/**
+	 * Turn on compact Bundle keys for {@link SaveInstance} fields. By default each field is saved with a key made of the
+	 * full class name and the field name. Compact keys are a short, stable hash of that key, which makes the
+	 * parceled Bundle smaller.
+	 * <br /><br />
+	 * If the compact key of a field is already in the Bundle, because the hash of another key is the same, the field
+	 * is saved with its full key instead. Fields that are null are saved as a null entry, so their key is not taken
+	 * by another field. Fields saved with one key mode can not be restored with the other, so this
+	 * should be set once, in {@code Application.onCreate()}, before any state is saved.
+	 * @param enabled true to use compact keys. Defaults to false.
+	 */
+	public static void setCompactBundleKeys(boolean enabled){
+		compactBundleKeys = enabled;
+	}
+
+	static boolean isCompactBundleKeys(){
+		return compactBundleKeys;
+	}
+
+	/**
+	 * Turn on binary Bundle state for {@link SaveInstance} fields. By default each field is saved as its own Bundle
+	 * entry, and each entry carries its key and type when the Bundle is parceled. With binary state, the primitive,
+	 * String and array fields of the whole inheritance chain are written to a single {@code byte[]} entry, and read
+	 * back from it in one pass. This makes the parceled Bundle smaller and faster to save and restore for classes
+	 * with many saved fields.
+	 * <br /><br />
+	 * Parcelable and Serializable fields, and the fields of classes with a generated {@link AutowireBinder}, are
+	 * still saved as entries of their own. State saved without binary state can be restored with it turned on, but
+	 * not the other way around, so this should be set once, in {@code Application.onCreate()}.
+	 * @param enabled true to save fields as binary state. Defaults to false.
+	 */
+	public static void setBinaryBundleState(boolean enabled){
+		binaryBundleState = enabled;
+	}
+
+	/**
+	 * Save and restore {@link SaveInstance} fields of a type with a {@link Bundler}, instead of a Bundle method for the
+	 * type. Fields whose declared type is the type, or a subclass or implementation of it, use the Bundler, unless their
+	 * annotation names a Bundler of its own. If more than one registered type matches a field, the type registered
+	 * first is used.
+	 * <br /><br />
+	 * This should be called in {@code Application.onCreate()}, before any state is saved. Binding plans are rebuilt
+	 * when a Bundler is registered. In binders generated by the annotation processor, registered Bundlers are only
+	 * used for fields whose declared type has no typed Bundle method.
+	 * @param type Declared type of the fields
+	 * @param bundler Bundler for the fields, or null to remove the Bundler registered for the type
+	 */
+	public static <T> void registerBundler(Class<T> type, Bundler<T> bundler){
+		BundlerRegistry.register(type, bundler);
+		AutowirePlan.clear();
+	}
+
+	/**
+	 * Release all of the metadata cached by AndroidAutowire: binding plans, resolved layouts, resource ids and
+	 * view holder plans. Everything will be rebuilt as it is needed again.
+	 */
+	public static void clearCaches(){
+		AutowirePlan.clear();
+		LayoutCache.clear();
+		ResourceIdCache.clear();
+		HolderPlan.clear();
+	}
+
+	/**
+	 * Wrap the phases of autowiring in {@code android.os.Trace} sections, so they can be seen in systrace and Perfetto:
+	 * layout resolution, {@code setContentView()} and {@code afterAutowire()} in {@link BaseAutowireActivity}, view
+	 * binding, and saving and restoring the Bundle.  Each section is named after the class being autowired.
+	 * Trace sections are only available from API 18.
+	 * @param enabled true to add trace sections. Defaults to false.
+	 */
+	public static void setTracingEnabled(boolean enabled){
+		AutowireTrace.setEnabled(enabled);
+	}
+
+	/**
+	 * Set the listener that receives the metrics of every autowire, save and restore.
+	 * @param listener The listener, or null to stop collecting metrics. Defaults to null.
+	 * @see AutowireListener
+	 */
+	public static void setListener(AutowireListener listener){
+		AutowireMetrics.setListener(listener);
+	}
+
+	/**
+	 * Release cached metadata in response to memory pressure.  Call this from {@code onTrimMemory(int)} in the
+	 * Application (or any {@code ComponentCallbacks2}), passing the level along.
+	 * <br /><br />
+	 * When the process is likely to be killed ({@code TRIM_MEMORY_MODERATE} and above), all caches are cleared.  When
+	 * the app is in the background, or the system is critically low on memory, each cache is cut in half, keeping
+	 * the most recently used metadata.  Layouts in the layout pool are released from {@code TRIM_MEMORY_RUNNING_LOW}
+	 * up, as they are far larger than the metadata.  Lower levels are ignored.
+	 * @param level The level passed to {@code onTrimMemory(int)}
+	 */
+	public static void trimMemory(int level){
+		if(level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW){
+			LayoutPool.clear();
+		}
+		if(level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE){
+			clearCaches();
+		}else if(level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL){
+			trimToHalf(AutowirePlan.cache());
+			trimToHalf(LayoutCache.cache());
+			trimToHalf(ResourceIdCache.cache());
+			trimToHalf(HolderPlan.cache());
+		}
+	}
+
+	private static void trimToHalf(BoundedCache<?, ?> cache){
+		cache.trimTo(cache.size() / 2);
+	}
+
+	/**
+	 * Set the maximum number of classes to keep binding plans for.  When there are more, the plans that were
+	 * used least recently are released, and rebuilt if they are needed again.
+	 * @param maxSize Maximum number of plans. Defaults to 512.
+	 */
+	public static void setMaxCachedPlans(int maxSize){
+		AutowirePlan.cache().setMaxSize(maxSize);
+	}
+
+	/**
+	 * Set the maximum number of Activity and Fragment classes to keep the resolved {@link AndroidLayout} layout for.
+	 * @param maxSize Maximum number of layouts. Defaults to 256.
+	 */
+	public static void setMaxCachedLayouts(int maxSize){
+		LayoutCache.cache().setMaxSize(maxSize);
+	}
+
+	/**
+	 * Set the maximum number of resource ids looked up by name to keep.
+	 * @param maxSize Maximum number of resource ids. Defaults to 2048.
+	 */
+	public static void setMaxCachedResourceIds(int maxSize){
+		ResourceIdCache.cache().setMaxSize(maxSize);
+	}
+
+	/**
+	 * Set the maximum number of view holder classes to keep the plans used by {@link #autowireHolder(Object, View)} for.
+	 * @param maxSize Maximum number of holder plans. Defaults to 256.
+	 */
+	public static void setMaxCachedHolders(int maxSize){
+		HolderPlan.cache().setMaxSize(maxSize);
+	}
+
+	/**
+	 * Set the maximum number of layouts to keep inflated in the layout pool.  The pool is not used until a size is
+	 * set.  Must be called on the main thread.
+	 * @param maxSize Maximum number of inflated layouts, or 0 to release them and stop pooling. Defaults to 0.
+	 * @see #poolLayouts(Context, Class, Class...)
+	 */
+	public static void setLayoutPoolSize(int maxSize){
+		LayoutPool.setMaxSize(maxSize);
+	}
+
+	/**
+	 * Keep the {@link AndroidLayout} layouts of these Activities and Fragments inflated ahead of time, for screens the
+	 * user returns to often.  The layouts are inflated one at a time when the main thread is idle, and each is
+	 * inflated again after it is used.  {@link BaseAutowireActivity}, {@link BaseAutowireFragment},
+	 * {@link AutowireFragmentDelegate} and {@link AutowireLifecycleCallbacks} take a layout from the pool when there is
+	 * one, and only autowire it.  The binding plans and layouts of the classes are resolved in the background, as with
+	 * {@link #prewarm(Context, Class, Class...)}, and the layouts are added to the pool on the main thread once they are
+	 * resolved.
+	 * <br /><br />
+	 * A pooled layout is inflated with the application context, so its theme attributes resolve against the
+	 * application's theme, not the Activity's.  Its root is inflated without a parent, so it gets the default layout
+	 * parameters of the view it is added to, as with {@code setContentView(View)}.  Only pool layouts that do not
+	 * depend on either.  Pooled layouts are released by {@link #trimMemory(int)}.
+	 * <br /><br />
+	 * The views of a pooled layout return a {@code MutableContextWrapper} around the Activity from
+	 * {@code getContext()}, not the Activity itself, so code that casts {@code view.getContext()} to an Activity
+	 * fails.  Do not pool the layouts of views that do this.
+	 * <br /><br />
+	 * Nothing is pooled until {@link #setLayoutPoolSize(int)} is called.  Must be called on the main thread.
+	 * @param context Context used to look up layouts by name. The Application context can be used.
+	 * @param baseClass The base activity/fragment allowing inheritance of layout
+	 * @param classes The Activity or Fragment classes to pool the layouts of
+	 */
+	public static void poolLayouts(Context context, final Class<?> baseClass, final Class<?>... classes){
+		prewarm(context, baseClass, classes);
+		final Context appContext = context.getApplicationContext();
+		final Handler mainHandler = new Handler(Looper.getMainLooper());
+		//Queued after the prewarm, so the layouts are resolved from the plans it built, and not on the main thread
+		BackgroundExecutor.get().execute(new Runnable(){
+			@Override
+			public void run(){
+				final int[] layoutIds = new int[classes.length];
+				for(int i = 0; i < classes.length; i++){
+					layoutIds[i] = LayoutCache.getLayout(classes[i], appContext, baseClass);
+				}
+				mainHandler.post(new Runnable(){
+					@Override
+					public void run(){
+						for(int layoutId : layoutIds){
+							if(layoutId != 0){
+								LayoutPool.add(appContext, layoutId);
+							}
+						}
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * @return the size, hit, miss and eviction counts of the plan, layout, resource id and holder caches, in that order
+	 */
+	public static List<AutowireCacheStats> getCacheStats(){
+		List<AutowireCacheStats> stats = new ArrayList<AutowireCacheStats>();
+		stats.add(AutowirePlan.cache().stats());
+		stats.add(LayoutCache.cache().stats());
+		stats.add(ResourceIdCache.cache().stats());
+		stats.add(HolderPlan.cache().stats());
+		return stats;
+	}
+
 	/**
 	 * Perform the wiring of the Android View using the {@link AndroidView} annotation.
 	 * <br /><br />
@@ -100,6 +338,25 @@ public class AndroidAutowire {
 	 * on the {@link AndroidView} annotation.
 	 */
 	public static void autowire(Activity thisClass, Class<?> baseClass) throws AndroidAutowireException{
+		AutowireMetrics metrics = AutowireMetrics.begin(AutowireMetrics.Operation.AUTOWIRE, thisClass);
+		boolean traced = AutowireTrace.begin(AutowireTrace.BIND, thisClass);
+		try {
+			autowireActivity(thisClass, baseClass);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+			if(metrics != null){
+				metrics.end(null);
+			}
+		}
+	}
+	
+	private static void autowireActivity(Activity thisClass, Class<?> baseClass){
+		if(singlePassViewLookup){
+			autowireSinglePass(thisClass, baseClass, thisClass.getWindow().getDecorView(), thisClass);
+			return;
+		}
 		Class<?> clazz = thisClass.getClass();
 		autowireViewsForClass(thisClass, clazz);
 		//Do this for all classes in the inheritance chain, until we get to the base class
@@ -120,21 +377,135 @@ public class AndroidAutowire {
 	 * no annotation for AndroidLayout present, then 0 is returned.
 	 */
 	public static int getLayoutResourceByAnnotation(Object thisClass, Context thisActivity, Class<?> baseClass) {
-		AndroidLayout layoutAnnotation = thisClass.getClass().getAnnotation(AndroidLayout.class);
-		Class<?> clazz = thisClass.getClass();
-		while(layoutAnnotation == null && baseClass.isAssignableFrom(clazz.getSuperclass())){
-			clazz = clazz.getSuperclass();
-			layoutAnnotation = clazz.getAnnotation(AndroidLayout.class);
+		boolean traced = AutowireTrace.begin(AutowireTrace.LAYOUT, thisClass);
+		try {
+			return LayoutCache.getLayout(thisClass.getClass(), thisActivity, baseClass);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
 		}
-		if(layoutAnnotation == null){
-			return 0;
+	}
+	
+	/**
+	 * Resolve the {@link AndroidLayout} layout resource for each of the given classes ahead of time.  The result is cached,
+	 * so the first call to {@code getLayoutResourceByAnnotation()} for these classes will not need to look for the annotation
+	 * or look up the layout resource by name.  This can be called from {@code Application.onCreate()}, so the cost is not
+	 * paid when the first Activity is launched.
+	 * @param context Context used to look up layouts by name. The Application context can be used.
+	 * @param baseClass The base activity/fragment allowing inheritance of layout
+	 * @param classes The Activity or Fragment classes to resolve layouts for
+	 */
+	public static void preloadLayouts(Context context, Class<?> baseClass, Class<?>... classes){
+		for(Class<?> clazz : classes){
+			LayoutCache.getLayout(clazz, context, baseClass);
 		}
-		if(layoutAnnotation.value() != 0){
-			return layoutAnnotation.value();
+	}
+	
+	/**
+	 * Build the autowire metadata for the given classes on a background thread, so it does not have to be built on the
+	 * main thread when each Activity or Fragment is first created.  This can be called from {@code Application.onCreate()}.
+	 * <br /><br />
+	 * For each class, and each of its parent classes up to baseClass, the binding and save/restore plans are built,
+	 * the {@link AndroidLayout} layout is resolved, and any view ids given by name are looked up.  If the main thread
+	 * autowires a class whose plan is still being built, it waits for that plan only.  A plan that has not been started
+	 * yet is built on the main thread as usual.
+	 * @param context Context used to look up resources by name. The Application context will be used.
+	 * @param executor Executor to build the metadata on
+	 * @param baseClass The base activity/fragment of the classes
+	 * @param classes The Activity, Fragment or View classes to prepare
+	 */
+	public static void prewarm(Context context, Executor executor, final Class<?> baseClass, Class<?>... classes){
+		final Context appContext = context.getApplicationContext();
+		for(final Class<?> thisClass : classes){
+			Class<?> clazz = thisClass;
+			AutowirePlan.prebuild(clazz, executor);
+			while(clazz.getSuperclass() != null && baseClass.isAssignableFrom(clazz.getSuperclass())){
+				clazz = clazz.getSuperclass();
+				AutowirePlan.prebuild(clazz, executor);
+			}
+			executor.execute(new Runnable(){
+				@Override
+				public void run(){
+					LayoutCache.getLayout(thisClass, appContext, baseClass);
+					Class<?> clazz = thisClass;
+					while(clazz != null && baseClass.isAssignableFrom(clazz)){
+						AutowirePlan plan = AutowirePlan.forClass(clazz);
+						resolveIdNames(appContext, plan.viewBindings);
+						resolveIdNames(appContext, plan.lazyBindings);
+						clazz = clazz.getSuperclass();
+					}
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Build the autowire metadata for the given classes on a background thread owned by AndroidAutowire.
+	 * @see #prewarm(Context, Executor, Class, Class...)
+	 */
+	public static void prewarm(Context context, Class<?> baseClass, Class<?>... classes){
+		prewarm(context, BackgroundExecutor.get(), baseClass, classes);
+	}
+	
+	/**
+	 * Build the autowire metadata, on a background thread owned by AndroidAutowire, for every class listed in the index
+	 * written by the AndroidAutowire annotation processor.  Classes are not initialized and no other classes are loaded.
+	 * If the processor is not used, there is no index and nothing is done.
+	 * <br /><br />
+	 * Layouts are not resolved, because the base class of each Activity or Fragment is not known.  Use
+	 * {@link #prewarm(Context, Class, Class...)} to also resolve layouts.  If the plan cache is smaller than the number of
+	 * indexed classes, it is made large enough to hold them all.
+	 * @param context Context used to look up resources by name. The Application context will be used.
+	 */
+	public static void prewarmIndexed(Context context){
+		prewarmIndexed(context, BackgroundExecutor.get());
+	}
+	
+	/**
+	 * Build the autowire metadata on the given executor for every class listed in the annotation processor's index.
+	 * @see #prewarmIndexed(Context)
+	 */
+	public static void prewarmIndexed(Context context, Executor executor){
+		final Context appContext = context.getApplicationContext();
+		executor.execute(new Runnable(){
+			@Override
+			public void run(){
+				ClassLoader classLoader = AndroidAutowire.class.getClassLoader();
+				AutowireIndex index = AutowireIndex.get();
+				//Make room for every indexed class, so warming the plans does not evict each other
+				BoundedCache<?, ?> plans = AutowirePlan.cache();
+				if(plans.getMaxSize() < index.entries.size()){
+					plans.setMaxSize(index.entries.size());
+				}
+				//Room for the id of every indexed view, and a layout looked up by name for each class
+				BoundedCache<?, ?> ids = ResourceIdCache.cache();
+				int idCount = index.viewCount + index.entries.size();
+				if(ids.getMaxSize() < idCount){
+					ids.setMaxSize(idCount);
+				}
+				for(AutowireIndex.Entry entry : index.entries){
+					Class<?> clazz;
+					try {
+						clazz = Class.forName(entry.className, false, classLoader);
+					} catch (ClassNotFoundException e){
+						//Removed by ProGuard, or not part of this app
+						continue;
+					}
+					AutowirePlan plan = AutowirePlan.forClass(clazz);
+					resolveIdNames(appContext, plan.viewBindings);
+					resolveIdNames(appContext, plan.lazyBindings);
+				}
+			}
+		});
+	}
+	
+	private static void resolveIdNames(Context context, AutowirePlan.ViewBinding[] bindings){
+		for(AutowirePlan.ViewBinding binding : bindings){
+			if(binding.resId == 0){
+				ResourceIdCache.getIdentifier(context, binding.idName, "id");
+			}
 		}
-		String className = thisClass.getClass().getSimpleName();
-		int layoutId = thisActivity.getResources().getIdentifier(className, "layout", thisActivity.getPackageName());
-		return layoutId;
 	}
 	
 	/**
@@ -145,26 +516,56 @@ public class AndroidAutowire {
 	 * @param baseClass Bass class of the Activity or Fragment
 	 */
 	public static void saveFieldsToBundle(Bundle bundle, Object thisClass, Class<?> baseClass){
+		AutowireMetrics metrics = AutowireMetrics.begin(AutowireMetrics.Operation.SAVE, thisClass);
+		if(metrics != null){
+			metrics.beforeSave(bundle);
+		}
+		boolean traced = AutowireTrace.begin(AutowireTrace.SAVE, thisClass);
+		try {
+			if(binaryBundleState){
+				BinaryState.save(bundle, thisClass, baseClass, metrics);
+			}else{
+				saveFields(bundle, thisClass, baseClass, metrics);
+			}
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+			if(metrics != null){
+				metrics.end(bundle);
+			}
+		}
+	}
+	
+	private static void saveFields(Bundle bundle, Object thisClass, Class<?> baseClass, AutowireMetrics metrics){
 		Class<?> clazz = thisClass.getClass();
 		while(baseClass.isAssignableFrom(clazz)){
-			String className = clazz.getName();
-			for(Field field : clazz.getDeclaredFields()){
-				if(field.isAnnotationPresent(SaveInstance.class)){
-					String name = field.getName();
-					field.setAccessible(true);
-					try {
-						Object value = field.get(thisClass);
-						String key = className + name;
-						if(value instanceof Serializable){
-							bundle.putSerializable(key, (Serializable) value);
-						}else if(value instanceof Parcelable){
-							bundle.putParcelable(key, (Parcelable) value);
-						}
-					} 
-					catch (Exception e){
-						//Could not put this field in the bundle.
-						Log.w("AndroidAutowire", "The field \"" + name + "\" was not added to the bundle");
+			AutowirePlan plan = AutowirePlan.forClass(clazz);
+			if(plan.binder != null){
+				plan.binder.saveFields(thisClass, bundle);
+				if(metrics != null){
+					metrics.fieldCount += plan.binder.getSaveFieldCount();
+				}
+				clazz = clazz.getSuperclass();
+				continue;
+			}
+			boolean compact = compactBundleKeys;
+			for(AutowirePlan.SaveBinding binding : plan.saveBindings){
+				long start = metrics != null ? metrics.fieldStart() : 0;
+				try {
+					Object value = binding.field.get(thisClass);
+					String key = AutowirePlan.saveKey(bundle, binding.key, binding.compactKey, compact);
+					if(value != null){
+						binding.put(bundle, key, value);
 					}
+					AutowirePlan.reserveKey(bundle, key, compact);
+				} 
+				catch (Exception e){
+					//Could not put this field in the bundle.
+					Log.w("AndroidAutowire", "The field \"" + binding.field.getName() + "\" was not added to the bundle");
+				}
+				if(metrics != null){
+					metrics.fieldDone(binding.field, start);
 				}
 			}
 			clazz = clazz.getSuperclass();
@@ -183,20 +584,57 @@ public class AndroidAutowire {
 		if(bundle == null){
 			return;
 		}
+		AutowireMetrics metrics = AutowireMetrics.begin(AutowireMetrics.Operation.RESTORE, thisClass);
+		if(metrics != null){
+			metrics.beforeRestore();
+		}
+		boolean traced = AutowireTrace.begin(AutowireTrace.RESTORE, thisClass);
+		try {
+			if(binaryBundleState){
+				BinaryState.load(bundle, thisClass, baseClass, metrics);
+			}else{
+				loadFields(bundle, thisClass, baseClass, metrics);
+			}
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+			if(metrics != null){
+				metrics.end(bundle);
+			}
+		}
+	}
+	
+	private static void loadFields(Bundle bundle, Object thisClass, Class<?> baseClass, AutowireMetrics metrics){
 		Class<?> clazz = thisClass.getClass();
 		while(baseClass.isAssignableFrom(clazz)){
-			for(Field field : clazz.getDeclaredFields()){
-				if(field.isAnnotationPresent(SaveInstance.class)){
-					field.setAccessible(true);
-					try {
-						Object fieldVal = bundle.get(clazz.getName() + field.getName());
-						if(fieldVal != null){
-							field.set(thisClass, fieldVal);							
-						}
-					} catch (Exception e){
-						//Could not get this field from the bundle.
-						Log.w("AndroidAutowire", "The field \"" + field.getName() + "\" was not retrieved from the bundle");
+			AutowirePlan plan = AutowirePlan.forClass(clazz);
+			if(plan.binder != null){
+				plan.binder.loadFields(thisClass, bundle);
+				if(metrics != null){
+					metrics.fieldCount += plan.binder.getSaveFieldCount();
+				}
+				clazz = clazz.getSuperclass();
+				continue;
+			}
+			boolean compact = compactBundleKeys;
+			for(AutowirePlan.SaveBinding binding : plan.saveBindings){
+				long start = metrics != null ? metrics.fieldStart() : 0;
+				try {
+					String key = AutowirePlan.loadKey(bundle, binding.key, binding.compactKey, compact);
+					if(metrics != null){
+						metrics.keyRead(key);
+					}
+					Object fieldVal = binding.get(bundle, key);
+					if(fieldVal != null){
+						binding.field.set(thisClass, fieldVal);
 					}
+				} catch (Exception e){
+					//Could not get this field from the bundle.
+					Log.w("AndroidAutowire", "The field \"" + binding.field.getName() + "\" was not retrieved from the bundle");
+				}
+				if(metrics != null){
+					metrics.fieldDone(binding.field, start);
 				}
 			}
 			clazz = clazz.getSuperclass();
@@ -216,6 +654,25 @@ public class AndroidAutowire {
 	 * on the {@link AndroidView} annotation.
 	 */
 	public static void autowireFragment(Object thisClass, Class<?> baseClass, View contentView, Context context) throws AndroidAutowireException{
+		AutowireMetrics metrics = AutowireMetrics.begin(AutowireMetrics.Operation.AUTOWIRE_FRAGMENT, thisClass);
+		boolean traced = AutowireTrace.begin(AutowireTrace.BIND, thisClass);
+		try {
+			autowireContentView(thisClass, baseClass, contentView, context);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+			if(metrics != null){
+				metrics.end(null);
+			}
+		}
+	}
+	
+	private static void autowireContentView(Object thisClass, Class<?> baseClass, View contentView, Context context){
+		if(singlePassViewLookup){
+			autowireSinglePass(thisClass, baseClass, contentView, context);
+			return;
+		}
 		Class<?> clazz = thisClass.getClass();
 		autowireViewsForFragment(thisClass, clazz, contentView, context);
 		//Do this for all classes in the inheritance chain, until we get to this class
@@ -228,6 +685,9 @@ public class AndroidAutowire {
 	/**
 	 * Autowire a custom view class. Load the sub views for the custom view using the {@link AndroidView} annotation.
 	 * Inheritance structures are supported.
+	 * <br /><br />
+	 * This may be called from a background thread, for example when custom views are inflated off the main thread.
+	 * Different views, of the same or different classes, can be autowired from many threads at once.
 	 * @param thisClass This Android View class to be autowired.
 	 * @param baseClass The views parent, allowing inherited views to be autowired, if necessary. If there is no custom
 	 * base class, just use this custom view's class.
@@ -236,82 +696,246 @@ public class AndroidAutowire {
 	 * Will not be thrown if required=false on the {@link AndroidView} annotation.
 	 */
 	public static void autowireView(View thisClass, Class<?> baseClass, Context context) throws AndroidAutowireException{
-		autowireFragment(thisClass, baseClass, thisClass, context);
+		AutowireMetrics metrics = AutowireMetrics.begin(AutowireMetrics.Operation.AUTOWIRE_VIEW, thisClass);
+		boolean traced = AutowireTrace.begin(AutowireTrace.BIND, thisClass);
+		try {
+			autowireContentView(thisClass, baseClass, thisClass, context);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+			if(metrics != null){
+				metrics.end(null);
+			}
+		}
 	}
 	
-	private static void autowireViewsForFragment(Object thisFragment, Class<?> clazz, View contentView, Context context){
-		for (Field field : clazz.getDeclaredFields()){
-			if(!field.isAnnotationPresent(AndroidView.class)){
-				continue;
+	/**
+	 * Autowire a view holder, such as a {@code RecyclerView.ViewHolder} or the tag object of a ListView row, to the views
+	 * of its item view.  The {@link AndroidView} fields of the holder's class and all of its superclasses are autowired.
+	 * <br /><br />
+	 * Call this in {@code onCreateViewHolder()} or {@code getView()}.  This is built for adapters: the fields of each
+	 * holder class are gathered into a single plan the first time it is autowired, and the ids of fields found by name
+	 * are resolved once.  After that, autowiring a holder does no reflection, id lookups or allocation, apart from the
+	 * holder given to each {@link LazyView} field.  Ids given by name in a class with a generated {@link AutowireBinder}
+	 * are still looked up in the resource id cache, so give the {@code value} of {@link AndroidView} in generated
+	 * holders.
+	 * @param holder The view holder being autowired
+	 * @param itemView The root view of the row
+	 * @throws AndroidAutowireException Indicates that there was an issue autowiring a view to an annotated field.
+	 * Will not be thrown if required=false on the {@link AndroidView} annotation.
+	 */
+	public static void autowireHolder(Object holder, View itemView) throws AndroidAutowireException{
+		AutowireMetrics metrics = AutowireMetrics.begin(AutowireMetrics.Operation.AUTOWIRE_HOLDER, holder);
+		boolean traced = AutowireTrace.begin(AutowireTrace.BIND, holder);
+		try {
+			autowireHolderViews(holder, itemView);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
 			}
-			if(!View.class.isAssignableFrom(field.getType())){
-				continue;
+			if(metrics != null){
+				metrics.end(null);
 			}
-			AndroidView androidView = field.getAnnotation(AndroidView.class);
-			int resId = androidView.value();
-			if(resId == 0){
-				String viewId = androidView.id();
-				if(androidView.id().equals("")){
-					viewId = field.getName();
-				}
-				resId = context.getResources().getIdentifier(viewId, "id", context.getPackageName());			
+		}
+	}
+	
+	private static void autowireHolderViews(Object holder, View itemView){
+		HolderPlan plan = HolderPlan.forClass(holder.getClass());
+		Context context = itemView.getContext();
+		for(AutowireBinder<Object> binder : plan.binders){
+			binder.autowire(holder, itemView, context);
+		}
+		if(plan.viewBindings.length == 0 && plan.lazyBindings.length == 0){
+			return;
+		}
+		HolderPlan.ResolvedIds ids = plan.resolveIds(context);
+		AutowireMetrics metrics = AutowireMetrics.active();
+		for(int i = 0; i < plan.viewBindings.length; i++){
+			long start = metrics != null ? metrics.fieldStart() : 0;
+			bindView(holder, plan.viewBindings[i], ids.viewIds[i], itemView.findViewById(ids.viewIds[i]));
+			if(metrics != null){
+				metrics.findViewByIdCalls++;
+				metrics.fieldDone(plan.viewBindings[i].field, start);
 			}
+		}
+		for(int i = 0; i < plan.lazyBindings.length; i++){
+			long start = metrics != null ? metrics.fieldStart() : 0;
+			bindLazyView(holder, plan.lazyBindings[i], ids.lazyIds[i], itemView);
+			if(metrics != null){
+				metrics.fieldDone(plan.lazyBindings[i].field, start);
+			}
+		}
+	}
+	
+	/**
+	 * Release the views autowired into an object, by setting every {@link AndroidView} field, including
+	 * {@link LazyView} fields, to null.  Call this from a Fragment's {@code onDestroyView()}, so a Fragment on the
+	 * back stack does not keep its old view hierarchy in memory.  {@link BaseAutowireFragment},
+	 * {@link AutowireFragmentDelegate} and {@link AutowireLifecycleCallbacks} do this for you.
+	 * @param thisClass The Activity, Fragment or View that was autowired
+	 * @param baseClass The base class that was used to autowire it
+	 */
+	public static void unbind(Object thisClass, Class<?> baseClass){
+		Class<?> clazz = thisClass.getClass();
+		while(clazz != null && baseClass.isAssignableFrom(clazz)){
+			AutowirePlan plan = AutowirePlan.forClass(clazz);
+			if(plan.binder != null){
+				plan.binder.unbind(thisClass);
+			}else{
+				unbindViews(thisClass, plan.viewBindings);
+				unbindViews(thisClass, plan.lazyBindings);
+			}
+			clazz = clazz.getSuperclass();
+		}
+	}
+	
+	/**
+	 * Release the views autowired into an object, in every class of its inheritance chain.
+	 * @see #unbind(Object, Class)
+	 */
+	public static void unbind(Object thisClass){
+		unbind(thisClass, Object.class);
+	}
+	
+	private static void unbindViews(Object target, AutowirePlan.ViewBinding[] bindings){
+		for(AutowirePlan.ViewBinding binding : bindings){
 			try {
-				View view = contentView.findViewById(resId);
-				if(view == null){
-					if(!androidView.required()){
-						continue;
-					}else{
-						throw new AndroidAutowireException("No view resource with the id of " + resId + " found. "
-								+" The required field " + field.getName() + " could not be autowired" );	
-					}
-				}
-				field.setAccessible(true);
-				field.set(thisFragment,view);
+				binding.field.set(target, null);
 			} catch (Exception e){
-				if(e instanceof AndroidAutowireException){
-					throw (AndroidAutowireException) e;
-				}
-				throw new AndroidAutowireException("Cound not Autowire AndroidView: " + field.getName() + ". " + e.getMessage());
+				throw new AndroidAutowireException("Could not unbind AndroidView: " + binding.field.getName() + ". " + e.getMessage());
 			}
 		}
 	}
 	
-	private static void autowireViewsForClass(Activity thisActivity, Class<?> clazz){
-		for (Field field : clazz.getDeclaredFields()){
-			if(!field.isAnnotationPresent(AndroidView.class)){
-				continue;
+	private static void autowireViewsForFragment(Object thisFragment, Class<?> clazz, View contentView, Context context){
+		AutowirePlan plan = AutowirePlan.forClass(clazz);
+		if(plan.binder != null){
+			plan.binder.autowire(thisFragment, contentView, context);
+			return;
+		}
+		AutowireMetrics metrics = AutowireMetrics.active();
+		for (AutowirePlan.ViewBinding binding : plan.viewBindings){
+			long start = metrics != null ? metrics.fieldStart() : 0;
+			int resId = binding.resId;
+			if(resId == 0){
+				resId = ResourceIdCache.getIdentifier(context, binding.idName, "id");
 			}
-			if(!View.class.isAssignableFrom(field.getType())){
-				continue;
+			bindView(thisFragment, binding, resId, contentView.findViewById(resId));
+			if(metrics != null){
+				metrics.findViewByIdCalls++;
+				metrics.fieldDone(binding.field, start);
 			}
-			AndroidView androidView = field.getAnnotation(AndroidView.class);
-			int resId = androidView.value();
+		}
+		bindLazyViews(thisFragment, plan, contentView, context);
+	}
+	
+	private static void autowireViewsForClass(Activity thisActivity, Class<?> clazz){
+		AutowirePlan plan = AutowirePlan.forClass(clazz);
+		if(plan.binder != null){
+			plan.binder.autowire(thisActivity, thisActivity.getWindow().getDecorView(), thisActivity);
+			return;
+		}
+		AutowireMetrics metrics = AutowireMetrics.active();
+		for (AutowirePlan.ViewBinding binding : plan.viewBindings){
+			long start = metrics != null ? metrics.fieldStart() : 0;
+			int resId = binding.resId;
 			if(resId == 0){
-				String viewId = androidView.id();
-				if(androidView.id().equals("")){
-					viewId = field.getName();
-				}
-				resId = thisActivity.getResources().getIdentifier(viewId, "id", thisActivity.getPackageName());			
+				resId = ResourceIdCache.getIdentifier(thisActivity, binding.idName, "id");
 			}
-			try {
-				View view = thisActivity.findViewById(resId);
-				if(view == null){
-					if(!androidView.required()){
-						continue;
-					}else{
-						throw new AndroidAutowireException("No view resource with the id of " + resId + " found. "
-								+" The required field " + field.getName() + " could not be autowired" );	
-					}
+			bindView(thisActivity, binding, resId, thisActivity.findViewById(resId));
+			if(metrics != null){
+				metrics.findViewByIdCalls++;
+				metrics.fieldDone(binding.field, start);
+			}
+		}
+		if(plan.lazyBindings.length > 0){
+			bindLazyViews(thisActivity, plan, thisActivity.getWindow().getDecorView(), thisActivity);
+		}
+	}
+	
+	private static void autowireSinglePass(Object target, Class<?> baseClass, View contentView, Context context){
+		List<AutowirePlan> plans = new ArrayList<AutowirePlan>();
+		Class<?> clazz = target.getClass();
+		plans.add(AutowirePlan.forClass(clazz));
+		while(baseClass.isAssignableFrom(clazz.getSuperclass())){
+			clazz = clazz.getSuperclass();
+			plans.add(AutowirePlan.forClass(clazz));
+		}
+		//Resolve every id first, so the view hierarchy only has to be walked once
+		SparseBooleanArray ids = new SparseBooleanArray();
+		int[][] resIds = new int[plans.size()][];
+		for(int i = 0; i < plans.size(); i++){
+			AutowirePlan.ViewBinding[] bindings = plans.get(i).viewBindings;
+			resIds[i] = new int[bindings.length];
+			for(int j = 0; j < bindings.length; j++){
+				int resId = bindings[j].resId;
+				if(resId == 0){
+					resId = ResourceIdCache.getIdentifier(context, bindings[j].idName, "id");
 				}
-				field.setAccessible(true);
-				field.set(thisActivity,view);
-			} catch (Exception e){
-				if(e instanceof AndroidAutowireException){
-					throw (AndroidAutowireException) e;
+				resIds[i][j] = resId;
+				if(resId != 0){
+					ids.put(resId, true);
 				}
-				throw new AndroidAutowireException("Cound not Autowire AndroidView: " + field.getName() + ". " + e.getMessage());
 			}
 		}
+		SparseArray<View> views = ViewIndex.build(contentView, ids);
+		AutowireMetrics metrics = AutowireMetrics.active();
+		for(int i = 0; i < plans.size(); i++){
+			AutowirePlan plan = plans.get(i);
+			if(plan.binder != null){
+				plan.binder.autowire(target, contentView, context);
+				continue;
+			}
+			for(int j = 0; j < plan.viewBindings.length; j++){
+				long start = metrics != null ? metrics.fieldStart() : 0;
+				bindView(target, plan.viewBindings[j], resIds[i][j], views.get(resIds[i][j]));
+				if(metrics != null){
+					metrics.fieldDone(plan.viewBindings[j].field, start);
+				}
+			}
+			bindLazyViews(target, plan, contentView, context);
+		}
+	}
+	
+	/**
+	 * Give each {@link LazyView} field a holder that will find the view in the content view when it is first used.
+	 */
+	private static void bindLazyViews(Object target, AutowirePlan plan, View contentView, Context context){
+		AutowireMetrics metrics = plan.lazyBindings.length > 0 ? AutowireMetrics.active() : null;
+		for (AutowirePlan.ViewBinding binding : plan.lazyBindings){
+			long start = metrics != null ? metrics.fieldStart() : 0;
+			int resId = binding.resId;
+			if(resId == 0){
+				resId = ResourceIdCache.getIdentifier(context, binding.idName, "id");
+			}
+			bindLazyView(target, binding, resId, contentView);
+			if(metrics != null){
+				metrics.fieldDone(binding.field, start);
+			}
+		}
+	}
+	
+	private static void bindLazyView(Object target, AutowirePlan.ViewBinding binding, int resId, View contentView){
+		try {
+			binding.field.set(target, new LazyView<View>(contentView, resId, binding.field.getName(), binding.required));
+		} catch (Exception e){
+			throw new AndroidAutowireException("Cound not Autowire AndroidView: " + binding.field.getName() + ". " + e.getMessage());
+		}
+	}
+	
+	private static void bindView(Object target, AutowirePlan.ViewBinding binding, int resId, View view){
+		if(view == null){
+			if(!binding.required){
+				return;
+			}
+			throw new AndroidAutowireException("No view resource with the id of " + resId + " found. "
+					+" The required field " + binding.field.getName() + " could not be autowired" );
+		}
+		try {
+			binding.field.set(target, view);
+		} catch (Exception e){
+			throw new AndroidAutowireException("Cound not Autowire AndroidView: " + binding.field.getName() + ". " + e.getMessage());
+		}
 	}
 }
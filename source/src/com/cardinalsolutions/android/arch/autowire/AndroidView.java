@@ -8,6 +8,9 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation to denote a field variable in an activity class that can be found by id at runtime.
+ * <br /><br />
+ * The field may be a {@code View} (or subclass), which is found when the class is autowired, or a
+ * {@link LazyView}, which finds the view the first time it is used.
  * @author Jacob Kanipe-Illig (jkanipe-illig@cardinalsolutions.com)
  * Copyright (c) 2013
  */
@@ -26,7 +29,8 @@ public @interface AndroidView {
 	/**
 	 * This View must be autowired. If required is true, then if the field cannot
 	 * be autowired, and exception is thrown.  No exception is thrown and the
-	 * autowire will fail silently if required is false.
+	 * autowire will fail silently if required is false.  For a {@link LazyView},
+	 * the exception is thrown by {@link LazyView#get()}.
 	 * <br /><br />
 	 * defaults to {@code true}
 	 * @return
@@ -0,0 +1,224 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.View;
+
+/**
+ * Base class for the binders generated by the AndroidAutowire annotation processor.
+ * <br /><br />
+ * For a class {@code com.example.MainActivity} with {@link AndroidView}, {@link AndroidLayout} or {@link SaveInstance}
+ * annotations, the processor generates {@code com.example.MainActivity_Autowire}. When {@link AndroidAutowire} finds a
+ * generated binder for a class in the inheritance chain, it will use the binder for that class instead of reflection.
+ * Classes without a binder (for example, classes with private annotated fields) are still autowired with reflection,
+ * so generated and reflective classes can be mixed in the same inheritance chain.
+ * <br /><br />
+ * A binder only handles the fields declared in its own class, not the fields inherited from parent classes.
+ *
+ * @param <T> The class being autowired
+ */
+public abstract class AutowireBinder<T> {
+
+	/**
+	 * Returned by {@link #getLayoutResource()} when the class is not annotated with {@link AndroidLayout}
+	 */
+	public static final int NO_LAYOUT = -1;
+
+	/**
+	 * @return The {@code value} of the {@link AndroidLayout} annotation on this class, 0 if the layout should be
+	 * found by class name, or {@link #NO_LAYOUT} if the class is not annotated.
+	 */
+	public abstract int getLayoutResource();
+
+	/**
+	 * Wire the {@link AndroidView} fields declared in this class.
+	 * @param target Object being autowired
+	 * @param contentView View containing the views to be autowired
+	 * @param context Context used to look up ids by name
+	 * @throws AndroidAutowireException if a required view cannot be found
+	 */
+	public abstract void autowire(T target, View contentView, Context context) throws AndroidAutowireException;
+
+	/**
+	 * Set the {@link AndroidView} fields declared in this class to null, releasing the views.
+	 * Binders generated before unbinding was supported do not override this, and release nothing.
+	 * @param target Object being unbound
+	 */
+	public void unbind(T target){
+	}
+
+	/**
+	 * Save the {@link SaveInstance} fields declared in this class into the Bundle.
+	 * @param target Object with the values being saved
+	 * @param bundle Bundle to save the values to
+	 */
+	public abstract void saveFields(T target, Bundle bundle);
+
+	/**
+	 * Load the {@link SaveInstance} fields declared in this class from the Bundle.
+	 * @param target Object to load the values into
+	 * @param bundle Bundle with the saved values
+	 */
+	public abstract void loadFields(T target, Bundle bundle);
+
+	/**
+	 * @return the number of {@link SaveInstance} fields declared in this class, reported to an {@link AutowireListener}
+	 */
+	public int getSaveFieldCount(){
+		return 0;
+	}
+
+	/**
+	 * Find a view by resource id.
+	 * @param contentView View to search
+	 * @param resId Resource id of the view
+	 * @param fieldName Name of the field being autowired, used in the exception message
+	 * @param required Whether an exception should be thrown if the view is not found
+	 * @return the view, or null if it was not found and is not required
+	 * @throws AndroidAutowireException if the view is required and not found
+	 */
+	protected static View findView(View contentView, int resId, String fieldName, boolean required) throws AndroidAutowireException{
+		View view = contentView.findViewById(resId);
+		AutowireMetrics metrics = AutowireMetrics.active();
+		if(metrics != null){
+			metrics.findViewByIdCalls++;
+			metrics.fieldCount++;
+		}
+		if(view == null && required){
+			throw new AndroidAutowireException("No view resource with the id of " + resId + " found. "
+					+" The required field " + fieldName + " could not be autowired" );
+		}
+		return view;
+	}
+
+	/**
+	 * Find a view by the name of the resource id.
+	 * @param contentView View to search
+	 * @param context Context used to look up the id
+	 * @param idName Name of the id resource
+	 * @param fieldName Name of the field being autowired, used in the exception message
+	 * @param required Whether an exception should be thrown if the view is not found
+	 * @return the view, or null if it was not found and is not required
+	 * @throws AndroidAutowireException if the view is required and not found
+	 */
+	protected static View findView(View contentView, Context context, String idName, String fieldName, boolean required) throws AndroidAutowireException{
+		int resId = ResourceIdCache.getIdentifier(context, idName, "id");
+		return findView(contentView, resId, fieldName, required);
+	}
+
+	/**
+	 * Create the holder for a {@link LazyView} field.
+	 * @param contentView View to search when the view is first used
+	 * @param resId Resource id of the view
+	 * @param fieldName Name of the field being autowired, used in the exception message
+	 * @param required Whether {@link LazyView#get()} should throw an exception if the view is not found
+	 * @return holder for the field
+	 */
+	protected static <V extends View> LazyView<V> lazyView(View contentView, int resId, String fieldName, boolean required){
+		countLazyView();
+		return new LazyView<V>(contentView, resId, fieldName, required);
+	}
+
+	/**
+	 * Create the holder for a {@link LazyView} field, with the id found by name.
+	 * @param contentView View to search when the view is first used
+	 * @param context Context used to look up the id
+	 * @param idName Name of the id resource
+	 * @param fieldName Name of the field being autowired, used in the exception message
+	 * @param required Whether {@link LazyView#get()} should throw an exception if the view is not found
+	 * @return holder for the field
+	 */
+	protected static <V extends View> LazyView<V> lazyView(View contentView, Context context, String idName, String fieldName, boolean required){
+		countLazyView();
+		return new LazyView<V>(contentView, ResourceIdCache.getIdentifier(context, idName, "id"), fieldName, required);
+	}
+
+	private static void countLazyView(){
+		AutowireMetrics metrics = AutowireMetrics.active();
+		if(metrics != null){
+			metrics.fieldCount++;
+		}
+	}
+
+	/**
+	 * @return the key to save a field with: its compact key if compact keys are on and the compact key is not already
+	 * in the Bundle, or its full key otherwise
+	 * @see AndroidAutowire#setCompactBundleKeys(boolean)
+	 */
+	protected static String saveKey(Bundle bundle, String key, String compactKey){
+		return AutowirePlan.saveKey(bundle, key, compactKey, AndroidAutowire.isCompactBundleKeys());
+	}
+
+	/**
+	 * Keep the key a field was saved with if nothing was put under it, for example because the field is null, so a
+	 * colliding field can not take the compact key.
+	 * @param bundle Bundle the field was saved to
+	 * @param key Key returned by {@link #saveKey(Bundle, String, String)}
+	 */
+	protected static void reserveKey(Bundle bundle, String key){
+		AutowirePlan.reserveKey(bundle, key, AndroidAutowire.isCompactBundleKeys());
+	}
+
+	/**
+	 * @return the key a field was saved with by {@link #saveKey(Bundle, String, String)}
+	 */
+	protected static String loadKey(Bundle bundle, String key, String compactKey){
+		String loadKey = AutowirePlan.loadKey(bundle, key, compactKey, AndroidAutowire.isCompactBundleKeys());
+		AutowireMetrics metrics = AutowireMetrics.active();
+		if(metrics != null){
+			metrics.keyRead(loadKey);
+		}
+		return loadKey;
+	}
+
+	/**
+	 * Put a value in the Bundle when the type of the field does not have a typed Bundle method, with the
+	 * {@link Bundler} registered for the field's declared type if there is one. Otherwise Parcelable is preferred
+	 * over Serializable, and values that are neither are not saved.
+	 * @param bundle Bundle to save the value to
+	 * @param key Key for the value
+	 * @param value Value to save
+	 * @param type Declared type of the field
+	 */
+	protected static void putValue(Bundle bundle, String key, Object value, Class<?> type){
+		if(value == null){
+			return;
+		}
+		Bundler<Object> bundler = BundlerRegistry.forType(type);
+		if(bundler != null){
+			bundler.put(bundle, key, value);
+		}else{
+			SaveStrategy.forType(value.getClass()).put(bundle, key, value);
+		}
+	}
+
+	/**
+	 * Get a value saved by {@link #putValue(Bundle, String, Object, Class)}.
+	 * @return the value, or null if there is none
+	 */
+	protected static Object getValue(Bundle bundle, String key, Class<?> type){
+		Bundler<Object> bundler = BundlerRegistry.forType(type);
+		return bundler != null ? bundler.get(bundle, key) : bundle.get(key);
+	}
+
+	/**
+	 * Put a value in the Bundle with the {@link Bundler} named by the field's {@link SaveInstance} annotation.
+	 * @param bundle Bundle to save the value to
+	 * @param key Key for the value
+	 * @param value Value to save
+	 * @param bundlerClass Bundler named by the annotation
+	 */
+	protected static void putBundled(Bundle bundle, String key, Object value, Class<?> bundlerClass){
+		if(value != null){
+			BundlerRegistry.instance(bundlerClass).put(bundle, key, value);
+		}
+	}
+
+	/**
+	 * Get a value saved by {@link #putBundled(Bundle, String, Object, Class)}.
+	 * @return the value, or null if there is none
+	 */
+	protected static Object getBundled(Bundle bundle, String key, Class<?> bundlerClass){
+		return BundlerRegistry.instance(bundlerClass).get(bundle, key);
+	}
+}
@@ -0,0 +1,68 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+/**
+ * Snapshot of the counters of one of the AndroidAutowire metadata caches, for tuning the cache sizes.
+ * <br /><br />
+ * A high miss count with many evictions means the cache is too small for the app, and metadata is being rebuilt.
+ * A cache whose size stays well below its maximum can be made smaller.
+ *
+ * @see AndroidAutowire#getCacheStats()
+ */
+public final class AutowireCacheStats {
+
+	private final String name;
+	private final int size;
+	private final int maxSize;
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+
+	AutowireCacheStats(String name, int size, int maxSize, long hitCount, long missCount, long evictionCount){
+		this.name = name;
+		this.size = size;
+		this.maxSize = maxSize;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+	}
+
+	/**
+	 * @return name of the cache: "plans", "holders", "layouts" or "resourceIds"
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * @return number of entries in the cache when the snapshot was taken
+	 */
+	public int getSize(){
+		return size;
+	}
+
+	public int getMaxSize(){
+		return maxSize;
+	}
+
+	public long getHitCount(){
+		return hitCount;
+	}
+
+	public long getMissCount(){
+		return missCount;
+	}
+
+	/**
+	 * @return number of entries removed to keep the cache within its maximum size, or by
+	 * {@link AndroidAutowire#trimMemory(int)}. Entries removed by {@link AndroidAutowire#clearCaches()} are not counted.
+	 */
+	public long getEvictionCount(){
+		return evictionCount;
+	}
+
+	@Override
+	public String toString(){
+		return name + " [size=" + size + "/" + maxSize + ", hits=" + hitCount + ", misses=" + missCount
+				+ ", evictions=" + evictionCount + "]";
+	}
+}
@@ -0,0 +1,19 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.os.Bundle;
+
+/**
+ * Implemented by an Activity autowired by {@link AutowireLifecycleCallbacks}, or a Fragment autowired by
+ * {@link AutowireFragmentDelegate}, to be told when its views have been autowired. This takes the place of
+ * {@link BaseAutowireActivity#afterAutowire(Bundle)} and {@link BaseAutowireFragment#afterAutowire(Bundle)} for
+ * classes that do not extend them.
+ */
+public interface AutowireCallback {
+
+	/**
+	 * Called after the views are autowired.
+	 * @param savedInstanceState For an Activity, the state it was created with. For a Fragment, the state passed to
+	 * {@code onCreateView()}. Null if there is no saved state.
+	 */
+	void afterAutowire(Bundle savedInstanceState);
+}
@@ -0,0 +1,116 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Does the autowiring for a Fragment: restores and saves {@link SaveInstance} fields, inflates the
+ * {@link AndroidLayout} layout, and autowires the {@link AndroidView} fields.
+ * <br /><br />
+ * {@link BaseAutowireFragment} uses this for the core {@code android.app.Fragment}. The library does not depend on the
+ * Support Library, so for a support Fragment, create the delegate in your base Fragment and call it from the
+ * matching lifecycle methods:
+ * <pre class="prettyprint">
+ * public abstract class BaseFragment extends Fragment implements AutowireCallback {
+ *
+ * 	private final AutowireFragmentDelegate autowire = new AutowireFragmentDelegate(this, BaseFragment.class);
+ *
+ * 	{@code @Override}
+ * 	public void onCreate(Bundle savedInstanceState){
+ * 		super.onCreate(savedInstanceState);
+ * 		autowire.onCreate(savedInstanceState);
+ * 	}
+ *
+ * 	{@code @Override}
+ * 	public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState){
+ * 		return autowire.onCreateView(inflater, container, savedInstanceState);
+ * 	}
+ *
+ * 	{@code @Override}
+ * 	public void onSaveInstanceState(Bundle outState){
+ * 		super.onSaveInstanceState(outState);
+ * 		autowire.onSaveInstanceState(outState);
+ * 	}
+ *
+ * 	{@code @Override}
+ * 	public void onDestroyView(){
+ * 		super.onDestroyView();
+ * 		autowire.onDestroyView();
+ * 	}
+ * }
+ * </pre>
+ * If the Fragment implements {@link AutowireCallback}, it is called back after the views are autowired.
+ * <br /><br />
+ * The layout and the binding plans are cached for each Fragment class, so creating the view again, for example when
+ * returning from the back stack, does not repeat any reflection or resource lookups.
+ */
+public final class AutowireFragmentDelegate {
+
+	private final Object fragment;
+	private final Class<?> baseClass;
+	private final boolean callback;
+
+	/**
+	 * @param fragment The core or support library Fragment
+	 * @param baseClass The Fragment's base class, allowing inheritance of the layout and views
+	 */
+	public AutowireFragmentDelegate(Object fragment, Class<?> baseClass){
+		this(fragment, baseClass, fragment instanceof AutowireCallback);
+	}
+
+	/**
+	 * @param callback Whether to call {@link AutowireCallback#afterAutowire(Bundle)}. {@link BaseAutowireFragment}
+	 * calls its own {@code afterAutowire()}.
+	 */
+	AutowireFragmentDelegate(Object fragment, Class<?> baseClass, boolean callback){
+		this.fragment = fragment;
+		this.baseClass = baseClass;
+		this.callback = callback;
+	}
+
+	/**
+	 * Restore the {@link SaveInstance} fields. Call from {@code onCreate(Bundle)}.
+	 * @param savedInstanceState The Fragment's saved state, or null
+	 */
+	public void onCreate(Bundle savedInstanceState){
+		AndroidAutowire.loadFieldsFromBundle(savedInstanceState, fragment, baseClass);
+	}
+
+	/**
+	 * Inflate the {@link AndroidLayout} layout, or take it from the layout pool, and autowire the views.
+	 * Call from {@code onCreateView()}.
+	 * @return the content view of the Fragment, or null if the Fragment is not annotated with {@link AndroidLayout}
+	 */
+	public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState){
+		int layoutId = AndroidAutowire.getLayoutResourceByAnnotation(fragment, inflater.getContext(), baseClass);
+		if(layoutId == 0){
+			return null;
+		}
+		View contentView = LayoutPool.take(layoutId, inflater.getContext());
+		if(contentView == null){
+			contentView = inflater.inflate(layoutId, container, false);
+		}
+		AndroidAutowire.autowireFragment(fragment, baseClass, contentView, inflater.getContext());
+		if(callback){
+			((AutowireCallback) fragment).afterAutowire(savedInstanceState);
+		}
+		return contentView;
+	}
+
+	/**
+	 * Save the {@link SaveInstance} fields. Call from {@code onSaveInstanceState(Bundle)}.
+	 */
+	public void onSaveInstanceState(Bundle outState){
+		AndroidAutowire.saveFieldsToBundle(outState, fragment, baseClass);
+	}
+
+	/**
+	 * Release the autowired views, so the old view hierarchy can be collected while the Fragment is on the back stack.
+	 * Call from {@code onDestroyView()}.
+	 */
+	public void onDestroyView(){
+		AndroidAutowire.unbind(fragment, baseClass);
+	}
+}
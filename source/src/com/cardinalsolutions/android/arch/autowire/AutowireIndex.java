@@ -0,0 +1,113 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import android.util.Log;
+
+/**
+ * Reads the index of annotated classes written by the AndroidAutowire annotation processor.
+ * <br /><br />
+ * The index lists every class that uses {@link AndroidView}, {@link AndroidLayout} or {@link SaveInstance}, with
+ * its number of {@link AndroidView} fields, so AndroidAutowire can prepare those classes without scanning the classpath.
+ * Every index resource visible to the class loader is read, so library modules that ran the processor are included.
+ * Apps that do not use the annotation processor have an empty index.
+ */
+final class AutowireIndex {
+
+	/** Must match the resource written by the annotation processor */
+	static final String RESOURCE = "META-INF/com.cardinalsolutions.android.arch.autowire.index";
+	private static final String HEADER = "# AndroidAutowire index 2";
+
+	private static volatile AutowireIndex instance;
+
+	final List<Entry> entries;
+	/** Total number of {@link AndroidView} fields in all indexed classes */
+	final int viewCount;
+
+	private AutowireIndex(List<Entry> entries){
+		this.entries = Collections.unmodifiableList(entries);
+		int views = 0;
+		for(Entry entry : entries){
+			views += entry.viewCount;
+		}
+		this.viewCount = views;
+	}
+
+	/**
+	 * Get the index, reading it the first time it is needed. Reading the index is I/O, so this should
+	 * not be first called on the main thread.
+	 */
+	static AutowireIndex get(){
+		AutowireIndex index = instance;
+		if(index == null){
+			synchronized(AutowireIndex.class){
+				index = instance;
+				if(index == null){
+					index = read(AutowireIndex.class.getClassLoader());
+					instance = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	static AutowireIndex read(ClassLoader classLoader){
+		List<Entry> entries = new ArrayList<Entry>();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+			while(resources.hasMoreElements()){
+				readResource(resources.nextElement(), entries);
+			}
+		} catch (IOException e){
+			Log.w("AndroidAutowire", "Could not read the autowire index. " + e.getMessage());
+		}
+		return new AutowireIndex(entries);
+	}
+
+	private static void readResource(URL url, List<Entry> entries) throws IOException{
+		InputStream in = url.openStream();
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+			String line = reader.readLine();
+			if(!HEADER.equals(line)){
+				//Written by a different version of the processor
+				Log.w("AndroidAutowire", "Skipping autowire index with unknown format: " + url);
+				return;
+			}
+			while((line = reader.readLine()) != null){
+				String[] parts = line.split("\t", -1);
+				if(parts.length == 2){
+					try {
+						entries.add(new Entry(parts[0], Integer.parseInt(parts[1])));
+					} catch (NumberFormatException e){
+						Log.w("AndroidAutowire", "Skipping invalid autowire index line: " + line);
+					}
+				}
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * A single annotated class in the index
+	 */
+	static final class Entry {
+		/** Binary name of the class, for {@code Class.forName()} */
+		final String className;
+		final int viewCount;
+
+		Entry(String className, int viewCount){
+			this.className = className;
+			this.viewCount = viewCount;
+		}
+	}
+}
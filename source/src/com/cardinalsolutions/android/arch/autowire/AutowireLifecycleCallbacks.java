@@ -0,0 +1,117 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.view.View;
+
+/**
+ * Autowires every Activity in the app, without a base class. Register it once in {@code Application.onCreate()}:
+ * <pre class="prettyprint">
+ * registerActivityLifecycleCallbacks(new AutowireLifecycleCallbacks());
+ * </pre>
+ * For each Activity that uses the AndroidAutowire annotations:
+ * <ul>
+ * <li>{@link SaveInstance} fields are restored when the Activity is created.</li>
+ * <li>If the Activity is annotated with {@link AndroidLayout}, the layout is set as the content view and the
+ * {@link AndroidView} fields are autowired before {@code super.onCreate()} returns, so the views can be used in
+ * {@code onCreate()}.</li>
+ * <li>Otherwise, the Activity sets its own content view in {@code onCreate()}, and the views are autowired when it
+ * is started. The views can not be used in {@code onCreate()}.</li>
+ * <li>{@link SaveInstance} fields are saved with the rest of the Activity's state.</li>
+ * <li>The views are released when the Activity is destroyed.</li>
+ * </ul>
+ * An Activity that implements {@link AutowireCallback} is called back once its views are autowired.
+ * <br /><br />
+ * Every class in the inheritance chain of the Activity is autowired. Whether an Activity class uses the annotations
+ * is only worked out once, so activities without annotations are skipped with a single map lookup. Subclasses of
+ * {@link BaseAutowireActivity} are skipped, as they autowire themselves.
+ * <br /><br />
+ * Requires API 14.
+ */
+public class AutowireLifecycleCallbacks implements Application.ActivityLifecycleCallbacks {
+
+	/** Lifecycle callbacks are made on the main thread, so these do not need to be synchronized */
+	private final Map<Class<?>, Boolean> annotatedClasses = new HashMap<Class<?>, Boolean>();
+	/** Activities whose views will be autowired when they are started, with their saved state */
+	private final Map<Activity, Bundle> pending = new WeakHashMap<Activity, Bundle>();
+
+	@Override
+	public void onActivityCreated(Activity activity, Bundle savedInstanceState){
+		if(!isAnnotated(activity)){
+			return;
+		}
+		AndroidAutowire.loadFieldsFromBundle(savedInstanceState, activity, Activity.class);
+		int layoutId = AndroidAutowire.getLayoutResourceByAnnotation(activity, activity, Activity.class);
+		if(layoutId == 0){
+			pending.put(activity, savedInstanceState);
+			return;
+		}
+		View pooled = LayoutPool.take(layoutId, activity);
+		if(pooled != null){
+			activity.setContentView(pooled);
+		}else{
+			activity.setContentView(layoutId);
+		}
+		autowire(activity, savedInstanceState);
+	}
+
+	@Override
+	public void onActivityStarted(Activity activity){
+		if(pending.isEmpty() || !pending.containsKey(activity)){
+			return;
+		}
+		autowire(activity, pending.remove(activity));
+	}
+
+	@Override
+	public void onActivitySaveInstanceState(Activity activity, Bundle outState){
+		if(isAnnotated(activity)){
+			AndroidAutowire.saveFieldsToBundle(outState, activity, Activity.class);
+		}
+	}
+
+	@Override
+	public void onActivityDestroyed(Activity activity){
+		pending.remove(activity);
+		if(isAnnotated(activity)){
+			AndroidAutowire.unbind(activity, Activity.class);
+		}
+	}
+
+	@Override
+	public void onActivityResumed(Activity activity){
+	}
+
+	@Override
+	public void onActivityPaused(Activity activity){
+	}
+
+	@Override
+	public void onActivityStopped(Activity activity){
+	}
+
+	private void autowire(Activity activity, Bundle savedInstanceState){
+		AndroidAutowire.autowire(activity, Activity.class);
+		if(activity instanceof AutowireCallback){
+			((AutowireCallback) activity).afterAutowire(savedInstanceState);
+		}
+	}
+
+	private boolean isAnnotated(Activity activity){
+		if(activity instanceof BaseAutowireActivity){
+			return false;
+		}
+		Class<?> clazz = activity.getClass();
+		Boolean annotated = annotatedClasses.get(clazz);
+		if(annotated == null){
+			annotated = AutowirePlan.isAnnotated(clazz, Activity.class);
+			annotatedClasses.put(clazz, annotated);
+		}
+		return annotated;
+	}
+}
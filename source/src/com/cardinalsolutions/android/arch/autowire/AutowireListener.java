@@ -0,0 +1,60 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.lang.reflect.Field;
+
+/**
+ * Receives metrics for each autowire, save and restore performed by {@link AndroidAutowire}, so their cost can be
+ * measured in production.
+ * <br /><br />
+ * Set a listener with {@link AndroidAutowire#setListener(AutowireListener)}. When no listener is set, which is the
+ * default, no metrics are collected and nothing is allocated.
+ * <br /><br />
+ * <strong>Example Usage:</strong>
+ * <pre class="prettyprint">
+ * AndroidAutowire.setListener(new AutowireListener(){
+ * 	{@code @Override}
+ * 	public void onOperation(AutowireMetrics metrics){
+ * 		if(metrics.getDurationNanos() > 2000000){
+ * 			Log.w("Startup", "Slow autowire: " + metrics);
+ * 		}
+ * 	}
+ * });
+ * </pre>
+ * Callbacks are made on the thread that performed the operation, which is usually the main thread, so they should
+ * be quick.
+ */
+public abstract class AutowireListener {
+
+	/**
+	 * Called when an autowire, save or restore is complete, including when it failed with an exception.
+	 * @param metrics Metrics of the operation. The object is reused for the next operation on this thread,
+	 * so copy any values needed after this method returns.
+	 */
+	public abstract void onOperation(AutowireMetrics metrics);
+
+	/**
+	 * Called for each field bound, saved or restored with reflection, when {@link #isFieldTimingEnabled()} is true.
+	 * Fields of classes with a generated {@link AutowireBinder} are not timed individually.
+	 * @param targetClass Class of the object being autowired
+	 * @param field The field
+	 * @param nanos Time to find, save or restore the value of the field
+	 */
+	public void onField(Class<?> targetClass, Field field, long nanos){
+	}
+
+	/**
+	 * @return true to time each field and report it to {@link #onField(Class, Field, long)}. Defaults to false.
+	 */
+	public boolean isFieldTimingEnabled(){
+		return false;
+	}
+
+	/**
+	 * @return true to measure the parceled size of the entries added to the Bundle by each save, and read from it by
+	 * each restore, reported by {@link AutowireMetrics#getBundleBytes()}. The entries are copied and parceled, so this
+	 * defaults to false.
+	 */
+	public boolean isBundleSizeEnabled(){
+		return false;
+	}
+}
@@ -0,0 +1,259 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+
+import android.os.Bundle;
+import android.os.Parcel;
+
+/**
+ * Metrics of a single autowire, save or restore, reported to an {@link AutowireListener}.
+ * <br /><br />
+ * The counts cover the whole inheritance chain of the target, up to the base class. One instance is kept per thread
+ * and reused for every operation on that thread, and only while a listener is set, so collecting metrics does not
+ * allocate.
+ */
+public final class AutowireMetrics {
+
+	/**
+	 * The {@link AndroidAutowire} method that was measured
+	 */
+	public enum Operation {
+		/** {@link AndroidAutowire#autowire(android.app.Activity, Class)} */
+		AUTOWIRE,
+		/** {@link AndroidAutowire#autowireFragment(Object, Class, android.view.View, android.content.Context)} */
+		AUTOWIRE_FRAGMENT,
+		/** {@link AndroidAutowire#autowireView(android.view.View, Class, android.content.Context)} */
+		AUTOWIRE_VIEW,
+		/** {@link AndroidAutowire#autowireHolder(Object, android.view.View)} */
+		AUTOWIRE_HOLDER,
+		/** {@link AndroidAutowire#saveFieldsToBundle(Bundle, Object, Class)} */
+		SAVE,
+		/** {@link AndroidAutowire#loadFieldsFromBundle(Bundle, Object, Class)} */
+		RESTORE
+	}
+
+	private static volatile AutowireListener listener;
+
+	private static final ThreadLocal<AutowireMetrics> CURRENT = new ThreadLocal<AutowireMetrics>(){
+		@Override
+		protected AutowireMetrics initialValue(){
+			return new AutowireMetrics();
+		}
+	};
+
+	/** Listener of the operation being recorded, or null if nothing is being recorded on this thread */
+	private AutowireListener recordingListener;
+	private boolean timeFields;
+	private long startNanos;
+
+	private Operation operation;
+	private Class<?> targetClass;
+	private long durationNanos;
+	int fieldCount;
+	int getIdentifierCalls;
+	int findViewByIdCalls;
+	int cacheHits;
+	int cacheMisses;
+	private int bundleBytes;
+	/** Keys that were in the Bundle before a save, while the size of the save is being measured */
+	private Set<String> keysBeforeSave;
+	/** Keys read by a restore, while the size of the restore is being measured */
+	private Set<String> keysRead;
+
+	private AutowireMetrics(){
+	}
+
+	static void setListener(AutowireListener newListener){
+		listener = newListener;
+	}
+
+	/**
+	 * Start recording an operation on this thread.
+	 * @return the metrics to pass to {@link #end(Bundle)}, or null if there is no listener, or this operation is
+	 * part of one that is already being recorded
+	 */
+	static AutowireMetrics begin(Operation operation, Object target){
+		AutowireListener currentListener = listener;
+		if(currentListener == null){
+			return null;
+		}
+		AutowireMetrics metrics = CURRENT.get();
+		if(metrics.recordingListener != null){
+			return null;
+		}
+		metrics.recordingListener = currentListener;
+		metrics.timeFields = currentListener.isFieldTimingEnabled();
+		metrics.operation = operation;
+		metrics.targetClass = target.getClass();
+		metrics.durationNanos = 0;
+		metrics.fieldCount = 0;
+		metrics.getIdentifierCalls = 0;
+		metrics.findViewByIdCalls = 0;
+		metrics.cacheHits = 0;
+		metrics.cacheMisses = 0;
+		metrics.bundleBytes = -1;
+		metrics.keysBeforeSave = null;
+		metrics.keysRead = null;
+		metrics.startNanos = System.nanoTime();
+		return metrics;
+	}
+
+	/**
+	 * @return the metrics of the operation being recorded on this thread, or null if there is none
+	 */
+	static AutowireMetrics active(){
+		if(listener == null){
+			return null;
+		}
+		AutowireMetrics metrics = CURRENT.get();
+		return metrics.recordingListener != null ? metrics : null;
+	}
+
+	/**
+	 * Remember the keys already in the Bundle, before the fields are saved to it, if the listener measures the size
+	 * of saves.
+	 */
+	void beforeSave(Bundle bundle){
+		if(recordingListener.isBundleSizeEnabled()){
+			keysBeforeSave = new HashSet<String>(bundle.keySet());
+		}
+	}
+
+	/**
+	 * Start collecting the keys the restore reads, if the listener measures the size of restores.
+	 */
+	void beforeRestore(){
+		if(recordingListener.isBundleSizeEnabled()){
+			keysRead = new HashSet<String>();
+		}
+	}
+
+	/**
+	 * Record a key read from the Bundle by the restore being measured.
+	 */
+	void keyRead(String key){
+		if(keysRead != null){
+			keysRead.add(key);
+		}
+	}
+
+	/**
+	 * Finish recording and report to the listener.
+	 * @param bundle Bundle that was saved to or restored from, or null
+	 */
+	void end(Bundle bundle){
+		durationNanos = System.nanoTime() - startNanos;
+		AutowireListener currentListener = recordingListener;
+		if(bundle != null && keysBeforeSave != null){
+			bundleBytes = parceledSize(bundle, keysBeforeSave, false);
+			keysBeforeSave = null;
+		}else if(bundle != null && keysRead != null){
+			bundleBytes = parceledSize(bundle, keysRead, true);
+			keysRead = null;
+		}
+		recordingListener = null;
+		currentListener.onOperation(this);
+	}
+
+	/**
+	 * @return start time for {@link #fieldDone(Field, long)}, or 0 if fields are not being timed
+	 */
+	long fieldStart(){
+		return timeFields ? System.nanoTime() : 0;
+	}
+
+	void fieldDone(Field field, long start){
+		fieldCount++;
+		if(timeFields){
+			recordingListener.onField(targetClass, field, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Parcel only some of the entries of the Bundle: those added by a save, or those read by a restore, not the rest
+	 * of the saved state.
+	 * @param keys Keys of the entries to parcel if {@code include} is true, or to leave out otherwise
+	 */
+	private static int parceledSize(Bundle bundle, Set<String> keys, boolean include){
+		Bundle entries = new Bundle(bundle);
+		for(String key : bundle.keySet()){
+			if(keys.contains(key) != include){
+				entries.remove(key);
+			}
+		}
+		Parcel parcel = Parcel.obtain();
+		try {
+			entries.writeToParcel(parcel, 0);
+			return parcel.dataSize();
+		} finally {
+			parcel.recycle();
+		}
+	}
+
+	public Operation getOperation(){
+		return operation;
+	}
+
+	/**
+	 * @return class of the Activity, Fragment or View
+	 */
+	public Class<?> getTargetClass(){
+		return targetClass;
+	}
+
+	public long getDurationNanos(){
+		return durationNanos;
+	}
+
+	/**
+	 * @return number of {@link AndroidView} fields bound, or {@link SaveInstance} fields saved or restored
+	 */
+	public int getFieldCount(){
+		return fieldCount;
+	}
+
+	/**
+	 * @return number of calls to {@code Resources.getIdentifier()}. Ids found in the cache are not counted.
+	 */
+	public int getGetIdentifierCalls(){
+		return getIdentifierCalls;
+	}
+
+	/**
+	 * @return number of calls to {@code findViewById()}. With single pass view lookup, the views are found with
+	 * one walk of the hierarchy, so no calls are counted.
+	 */
+	public int getFindViewByIdCalls(){
+		return findViewByIdCalls;
+	}
+
+	/**
+	 * @return number of plan, layout and resource id lookups that were found in the AndroidAutowire caches
+	 */
+	public int getCacheHits(){
+		return cacheHits;
+	}
+
+	public int getCacheMisses(){
+		return cacheMisses;
+	}
+
+	/**
+	 * @return parceled size of the entries the save added to the Bundle, or of the entries the restore read from it,
+	 * or -1 if it was not measured. The rest of the Bundle, such as the state of the view hierarchy, is not included,
+	 * and neither are entries a {@link Bundler} reads under keys of its own. Only measured for saves and restores,
+	 * when {@link AutowireListener#isBundleSizeEnabled()} is true.
+	 */
+	public int getBundleBytes(){
+		return bundleBytes;
+	}
+
+	@Override
+	public String toString(){
+		return operation + " " + targetClass.getName() + " [" + durationNanos / 1000 + "us, fields=" + fieldCount
+				+ ", getIdentifier=" + getIdentifierCalls + ", findViewById=" + findViewByIdCalls
+				+ ", cacheHits=" + cacheHits + ", cacheMisses=" + cacheMisses + ", bundleBytes=" + bundleBytes + "]";
+	}
+}
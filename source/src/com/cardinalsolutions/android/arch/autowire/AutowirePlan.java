@@ -0,0 +1,334 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import android.os.Bundle;
+import android.view.View;
+
+/**
+ * Immutable binding plan for a single class in an autowired inheritance chain.
+ * <br /><br />
+ * The plan holds the fields declared by one class that are annotated with {@link AndroidView} or
+ * {@link SaveInstance}, already made accessible, along with the values read from the annotation
+ * and the {@link SaveStrategy} for each saved field. Plans are built the first time a class is autowired and reused for every instance
+ * afterwards, so the reflection over {@code getDeclaredFields()} is only paid once per class.
+ * <br /><br />
+ * {@link AndroidView} fields of the {@link LazyView} type are kept apart from the eagerly bound views, as they
+ * are not looked up until they are used.
+ * <br /><br />
+ * If the annotation processor generated an {@link AutowireBinder} for the class, the plan holds the
+ * binder instead, and the fields of the class are never reflected over.
+ */
+final class AutowirePlan {
+
+	/** Suffix of the class name of binders generated by the annotation processor */
+	static final String BINDER_SUFFIX = "_Autowire";
+
+	static final int DEFAULT_MAX_PLANS = 512;
+
+	/**
+	 * Plans are published through a concurrent cache without a global lock. Each class has a single task, so a plan is only
+	 * built once while it is cached, and threads that need a plan being built by another thread wait for that class only.
+	 */
+	private static final BoundedCache<Class<?>, FutureTask<AutowirePlan>> PLANS = new BoundedCache<Class<?>, FutureTask<AutowirePlan>>("plans", DEFAULT_MAX_PLANS);
+
+	final Class<?> clazz;
+	/** Views found when the class is autowired */
+	final ViewBinding[] viewBindings;
+	/** {@link LazyView} fields, given a holder when the class is autowired */
+	final ViewBinding[] lazyBindings;
+	final SaveBinding[] saveBindings;
+	/** Generated binder for this class, or null if the class must be autowired with reflection */
+	final AutowireBinder<Object> binder;
+	/** True if the class has a binder, any annotated field, or the {@link AndroidLayout} annotation */
+	final boolean annotated;
+	/** Bundle key of the {@link BinaryState} of objects of this class */
+	final String stateKey;
+
+	private AutowirePlan(Class<?> clazz, ViewBinding[] viewBindings, ViewBinding[] lazyBindings, SaveBinding[] saveBindings, AutowireBinder<Object> binder){
+		this.clazz = clazz;
+		this.viewBindings = viewBindings;
+		this.lazyBindings = lazyBindings;
+		this.saveBindings = saveBindings;
+		this.binder = binder;
+		this.annotated = binder != null || viewBindings.length > 0 || lazyBindings.length > 0 || saveBindings.length > 0
+				|| clazz.isAnnotationPresent(AndroidLayout.class);
+		this.stateKey = clazz.getName() + BinaryState.KEY_SUFFIX;
+	}
+
+	/**
+	 * @return true if any class in the inheritance chain, from clazz up to baseClass, uses the AndroidAutowire annotations
+	 */
+	static boolean isAnnotated(Class<?> clazz, Class<?> baseClass){
+		while(clazz != null && baseClass.isAssignableFrom(clazz)){
+			if(forClass(clazz).annotated){
+				return true;
+			}
+			clazz = clazz.getSuperclass();
+		}
+		return false;
+	}
+
+	/**
+	 * Get the plan for the fields declared in this class, building it if this class has not been seen before.
+	 * Superclasses are not included; each class in the inheritance chain has its own plan.
+	 * <br /><br />
+	 * If the plan is being built on a background thread by {@link #prebuild(Class, Executor)}, this waits for it.
+	 * If the background build was queued but has not started, the plan is built on this thread instead.
+	 * @param clazz Class to get the plan for
+	 * @return binding plan for the class
+	 */
+	static AutowirePlan forClass(Class<?> clazz){
+		FutureTask<AutowirePlan> task = PLANS.get(clazz);
+		if(task == null){
+			task = getOrAddTask(clazz);
+		}
+		//Does nothing if the task has already been run, or is running on another thread
+		task.run();
+		return getPlan(clazz, task);
+	}
+
+	/**
+	 * Build the plan for this class on the executor, if it has not already been built or started.
+	 * @param clazz Class to build the plan for
+	 * @param executor Executor to build the plan on
+	 */
+	static void prebuild(Class<?> clazz, Executor executor){
+		if(!PLANS.containsKey(clazz)){
+			executor.execute(getOrAddTask(clazz));
+		}
+	}
+
+	private static FutureTask<AutowirePlan> getOrAddTask(final Class<?> clazz){
+		FutureTask<AutowirePlan> task = new FutureTask<AutowirePlan>(new Callable<AutowirePlan>(){
+			@Override
+			public AutowirePlan call(){
+				return build(clazz);
+			}
+		});
+		//If another thread added a task first, use that one. This task is never run.
+		FutureTask<AutowirePlan> existing = PLANS.putIfAbsent(clazz, task);
+		return existing == null ? task : existing;
+	}
+
+	private static AutowirePlan getPlan(Class<?> clazz, FutureTask<AutowirePlan> task){
+		boolean interrupted = false;
+		try {
+			while(true){
+				try {
+					return task.get();
+				} catch (InterruptedException e){
+					//The plan is needed to continue, keep waiting and restore the interrupt afterwards
+					interrupted = true;
+				} catch (ExecutionException e){
+					//Let the next call try again, unless another thread has already replaced the task
+					PLANS.remove(clazz, task);
+					Throwable cause = e.getCause();
+					if(cause instanceof RuntimeException){
+						throw (RuntimeException) cause;
+					}
+					if(cause instanceof Error){
+						throw (Error) cause;
+					}
+					throw new AndroidAutowireException("Could not build the autowire plan for " + clazz.getName() + ". " + cause);
+				}
+			}
+		} finally {
+			if(interrupted){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Remove all binding plans.
+	 */
+	static void clear(){
+		PLANS.clear();
+	}
+
+	static BoundedCache<Class<?>, FutureTask<AutowirePlan>> cache(){
+		return PLANS;
+	}
+
+	private static AutowirePlan build(Class<?> clazz){
+		if(isFrameworkClass(clazz)){
+			//Framework and support library classes are never annotated, do not reflect over them
+			return new AutowirePlan(clazz, new ViewBinding[0], new ViewBinding[0], new SaveBinding[0], null);
+		}
+		AutowireBinder<Object> binder = findBinder(clazz);
+		if(binder != null){
+			return new AutowirePlan(clazz, new ViewBinding[0], new ViewBinding[0], new SaveBinding[0], binder);
+		}
+		List<ViewBinding> views = new ArrayList<ViewBinding>();
+		List<ViewBinding> lazyViews = new ArrayList<ViewBinding>();
+		List<SaveBinding> saves = new ArrayList<SaveBinding>();
+		for(Field field : clazz.getDeclaredFields()){
+			if(field.isAnnotationPresent(SaveInstance.class)){
+				field.setAccessible(true);
+				saves.add(new SaveBinding(field));
+			}
+			AndroidView androidView = field.getAnnotation(AndroidView.class);
+			if(androidView == null){
+				continue;
+			}
+			if(field.getType() == LazyView.class){
+				field.setAccessible(true);
+				lazyViews.add(new ViewBinding(field, androidView));
+				continue;
+			}
+			if(!View.class.isAssignableFrom(field.getType())){
+				continue;
+			}
+			field.setAccessible(true);
+			views.add(new ViewBinding(field, androidView));
+		}
+		return new AutowirePlan(clazz, views.toArray(new ViewBinding[views.size()]), lazyViews.toArray(new ViewBinding[lazyViews.size()]),
+				saves.toArray(new SaveBinding[saves.size()]), null);
+	}
+
+	private static boolean isFrameworkClass(Class<?> clazz){
+		String name = clazz.getName();
+		return name.startsWith("android.") || name.startsWith("androidx.") || name.startsWith("java.") || name.startsWith("javax.");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static AutowireBinder<Object> findBinder(Class<?> clazz){
+		try {
+			Class<?> binderClass = Class.forName(clazz.getName() + BINDER_SUFFIX, true, clazz.getClassLoader());
+			return (AutowireBinder<Object>) binderClass.getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e){
+			//No generated binder, fall back to reflection
+			return null;
+		} catch (InvocationTargetException e){
+			//Thrown by the binder's constructor
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error){
+				throw (Error) cause;
+			}
+			throw new AndroidAutowireException("Could not create the generated binder for " + clazz.getName() + ". " + cause);
+		} catch (Exception e){
+			throw new AndroidAutowireException("Could not create the generated binder for " + clazz.getName() + ". " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A single {@link AndroidView} field, with the annotation values resolved.
+	 */
+	static final class ViewBinding {
+		final Field field;
+		/** The {@code value} of the annotation, or 0 if the id must be looked up by name */
+		final int resId;
+		/** The {@code id} of the annotation, or the field name if no id was given */
+		final String idName;
+		final boolean required;
+
+		ViewBinding(Field field, AndroidView androidView){
+			this.field = field;
+			this.resId = androidView.value();
+			this.idName = androidView.id().equals("") ? field.getName() : androidView.id();
+			this.required = androidView.required();
+		}
+	}
+
+	/**
+	 * A single {@link SaveInstance} field, with the strategy or {@link Bundler} for its declared type.
+	 */
+	static final class SaveBinding {
+		final Field field;
+		final SaveStrategy strategy;
+		/** {@link Bundler} named by the annotation or registered for the declared type, or null to use the strategy */
+		final Bundler<Object> bundler;
+		/** Writes the field to {@link BinaryState}, or null if it has its own entry, as fields with a Bundler do */
+		final BinaryCodec codec;
+		/** Bundle key: the name of the declaring class followed by the field name */
+		final String key;
+		/** Short Bundle key used when compact keys are turned on, see {@link AutowirePlan#saveKey} */
+		final String compactKey;
+
+		SaveBinding(Field field){
+			this.field = field;
+			this.strategy = SaveStrategy.forType(field.getType());
+			Class<?> bundlerClass = field.getAnnotation(SaveInstance.class).bundler();
+			this.bundler = bundlerClass != Bundler.class ? BundlerRegistry.instance(bundlerClass) : BundlerRegistry.forType(field.getType());
+			this.codec = bundler == null ? strategy.codec : null;
+			this.key = (field.getDeclaringClass().getName() + field.getName()).intern();
+			this.compactKey = compactKey(key);
+		}
+
+		void put(Bundle bundle, String key, Object value){
+			if(bundler != null){
+				bundler.put(bundle, key, value);
+			}else{
+				strategy.put(bundle, key, value);
+			}
+		}
+
+		/**
+		 * @return the saved value, or null if there is none
+		 */
+		Object get(Bundle bundle, String key){
+			if(bundler != null){
+				return bundler.get(bundle, key);
+			}
+			return bundle.containsKey(key) ? strategy.get(bundle, key) : null;
+		}
+	}
+
+	/**
+	 * Create the compact form of a Bundle key: a '#' followed by the base 36 String hash code of the full key.
+	 * {@code String.hashCode()} is specified, so the compact key is stable between processes and releases.
+	 * The annotation processor uses the same algorithm for generated binders.
+	 * @param key Full Bundle key
+	 * @return compact key
+	 */
+	static String compactKey(String key){
+		return ("#" + Integer.toString(key.hashCode(), Character.MAX_RADIX)).intern();
+	}
+
+	/**
+	 * Choose the key to save a field with. Compact keys share the Bundle with the fields of every class in the
+	 * inheritance chain, and with the rest of the saved state, so a compact key that is already in the Bundle belongs
+	 * to something else, and the full key is used instead. The full key is unique to the field.
+	 * @param bundle Bundle the field is being saved to
+	 * @param key Full key of the field
+	 * @param compactKey Compact key of the field
+	 * @param compact true if compact keys are turned on
+	 * @return key to save the field with
+	 */
+	static String saveKey(Bundle bundle, String key, String compactKey, boolean compact){
+		return compact && !bundle.containsKey(compactKey) ? compactKey : key;
+	}
+
+	/**
+	 * Keep the key a field was saved with when nothing was put under it, as happens when the field is null, by
+	 * putting a null placeholder. Otherwise a colliding field could save to the same compact key, and
+	 * {@link #loadKey(Bundle, String, String, boolean)} would restore that field's value into this one.
+	 * @param bundle Bundle the field was saved to
+	 * @param key Key returned by {@link #saveKey(Bundle, String, String, boolean)}
+	 * @param compact true if compact keys are turned on
+	 */
+	static void reserveKey(Bundle bundle, String key, boolean compact){
+		if(compact && !bundle.containsKey(key)){
+			bundle.putString(key, null);
+		}
+	}
+
+	/**
+	 * Choose the key to restore a field from: the full key if the field was saved with it because its compact key
+	 * was taken, see {@link #saveKey(Bundle, String, String, boolean)}, or the compact key otherwise.
+	 */
+	static String loadKey(Bundle bundle, String key, String compactKey, boolean compact){
+		return compact && !bundle.containsKey(key) ? compactKey : key;
+	}
+}
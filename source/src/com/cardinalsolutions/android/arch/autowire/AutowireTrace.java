@@ -0,0 +1,70 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Trace sections around the phases of autowiring, so they show up by name in systrace and Perfetto.
+ * <br /><br />
+ * Tracing is off by default and is switched on with {@link AndroidAutowire#setTracingEnabled(boolean)}. Each section
+ * is named after the phase and the class being autowired, for example
+ * {@code "Autowire bind com.example.MainActivity"}. {@code android.os.Trace} was added in API 18, so nothing is
+ * traced on older devices.
+ */
+final class AutowireTrace {
+
+	static final String LAYOUT = "Autowire layout ";
+	static final String SET_CONTENT_VIEW = "Autowire setContentView ";
+	static final String INFLATE = "Autowire inflate ";
+	static final String BIND = "Autowire bind ";
+	static final String RESTORE = "Autowire restore ";
+	static final String SAVE = "Autowire save ";
+	static final String AFTER_AUTOWIRE = "Autowire afterAutowire ";
+
+	/** Longer section names are rejected by {@code Trace.beginSection()} */
+	private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+	private static volatile boolean enabled;
+
+	private AutowireTrace(){
+	}
+
+	static void setEnabled(boolean enabled){
+		AutowireTrace.enabled = enabled;
+	}
+
+	/**
+	 * Begin a section, if tracing is enabled.
+	 * @param phase One of the phase names in this class
+	 * @param target Object being autowired
+	 * @return true if a section was begun, and {@link #end()} must be called
+	 */
+	static boolean begin(String phase, Object target){
+		if(!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2){
+			return false;
+		}
+		String name = phase + target.getClass().getName();
+		if(name.length() > MAX_SECTION_NAME_LENGTH){
+			name = name.substring(0, MAX_SECTION_NAME_LENGTH);
+		}
+		Api18.beginSection(name);
+		return true;
+	}
+
+	static void end(){
+		Api18.endSection();
+	}
+
+	/**
+	 * Kept in a separate class so {@code android.os.Trace} is never loaded before API 18
+	 */
+	private static final class Api18 {
+		static void beginSection(String name){
+			Trace.beginSection(name);
+		}
+
+		static void endSection(){
+			Trace.endSection();
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The executor AndroidAutowire uses for background work when the app does not provide one.
+ * A single daemon thread, created the first time it is needed.
+ */
+final class BackgroundExecutor {
+
+	private BackgroundExecutor(){
+	}
+
+	static Executor get(){
+		return Holder.EXECUTOR;
+	}
+
+	/**
+	 * Holder idiom, so the thread is not created unless background work is requested.
+	 */
+	private static final class Holder {
+		static final Executor EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable runnable){
+				Thread thread = new Thread(runnable, "AndroidAutowire");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
@@ -2,16 +2,29 @@ package com.cardinalsolutions.android.arch.autowire;
 
 import android.app.Activity;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
 
 /**
  * Provided BaseActivity for use of AndroidAutowire annotations. <br /><br />
  * Use of this class means that you do not need to provide your own custom BaseActivity to
  * integrate with the AndroidAutowire library.
+ * <br /><br />
+ * Activities with heavy layouts can have the layout inflated and autowired off the main thread, by overriding
+ * {@link #isAsyncLayoutEnabled()}.
  * @author Jacob Kanipe-Illig (jkanipe-illig@cardinalsolutions.com)
  * Copyright (c) 2013
  */
 public abstract class BaseAutowireActivity extends Activity {
 
+	/** Key of the view hierarchy state in the Bundle saved by {@code Activity.onSaveInstanceState()} */
+	private static final String WINDOW_HIERARCHY_TAG = "android:viewHierarchyState";
+
+	private boolean destroyed;
+
 	@Override
 	protected void onCreate(Bundle savedInstanceState){
 		super.onCreate(savedInstanceState);
@@ -22,13 +35,31 @@ public abstract class BaseAutowireActivity extends Activity {
 		if(layoutId == 0){
 			return;
 		}
+		View pooled = LayoutPool.take(layoutId, this);
+		if(pooled != null){
+			setContentViewTraced(pooled);
+			AndroidAutowire.autowire(this, BaseAutowireActivity.class);
+			callAfterAutowire(savedInstanceState);
+			return;
+		}
+		if(isAsyncLayoutEnabled()){
+			inflateAsync(layoutId, savedInstanceState);
+			return;
+		}
 		setContentView(layoutId);
-		afterAutowire(savedInstanceState);
+		callAfterAutowire(savedInstanceState);
 	}
 	
 	@Override
 	public void setContentView(int layoutResID){
-		super.setContentView(layoutResID);
+		boolean traced = AutowireTrace.begin(AutowireTrace.SET_CONTENT_VIEW, this);
+		try {
+			super.setContentView(layoutResID);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+		}
 		//autowire the AndroidView fields
 		AndroidAutowire.autowire(this, BaseAutowireActivity.class);
 	}
@@ -39,6 +70,121 @@ public abstract class BaseAutowireActivity extends Activity {
 		AndroidAutowire.saveFieldsToBundle(outState, this, BaseAutowireActivity.class);
 	}
 	
+	@Override
+	protected void onDestroy(){
+		destroyed = true;
+		super.onDestroy();
+	}
+	
+	/**
+	 * Override this to return true to inflate the {@link AndroidLayout} layout, and autowire its views, on a background
+	 * thread. The layout is set as the content view, and {@link #afterAutowire(Bundle)} is called, on the main thread
+	 * once it is ready, which will be after {@code onCreate()} has returned, and may be after {@code onResume()}.
+	 * The views must not be used before {@code afterAutowire()}.
+	 * <br /><br />
+	 * The layout is inflated without a parent, so the layout parameters of its root view are replaced, as they are
+	 * by {@code setContentView(View)}. If the layout can not be inflated off the main thread, for example because it
+	 * has views that need a {@code Looper}, it is inflated on the main thread instead.
+	 * <br /><br />
+	 * {@code onRestoreInstanceState()} runs before the layout is attached, so the saved state of the views, such as
+	 * the text of an {@code EditText}, is restored again once the layout is attached, after {@code afterAutowire()}.
+	 * @return true to inflate the layout off the main thread. Defaults to false.
+	 */
+	protected boolean isAsyncLayoutEnabled(){
+		return false;
+	}
+	
+	private void inflateAsync(final int layoutId, final Bundle savedInstanceState){
+		//The Activity's inflater is shared with the main thread, and is not thread-safe
+		final LayoutInflater inflater = LayoutInflater.from(this).cloneInContext(this);
+		final Handler mainHandler = new Handler(Looper.getMainLooper());
+		BackgroundExecutor.get().execute(new Runnable(){
+			@Override
+			public void run(){
+				View contentView;
+				try {
+					contentView = inflateAndAutowire(inflater, layoutId);
+				} catch (Throwable e){
+					//Includes errors wrapped in an InflateException, such as running out of memory decoding a
+					//drawable, so the Activity still gets its content view
+					Log.w("AndroidAutowire", "Could not inflate the layout of " + BaseAutowireActivity.this.getClass().getName()
+							+ " in the background, inflating it on the main thread", e);
+					contentView = null;
+				}
+				final View inflated = contentView;
+				mainHandler.post(new Runnable(){
+					@Override
+					public void run(){
+						attachLayout(layoutId, inflated, savedInstanceState);
+					}
+				});
+			}
+		});
+	}
+	
+	/**
+	 * Inflate the layout and autowire the views against the detached hierarchy. Called on the background thread.
+	 */
+	private View inflateAndAutowire(LayoutInflater inflater, int layoutId){
+		View contentView;
+		boolean traced = AutowireTrace.begin(AutowireTrace.INFLATE, this);
+		try {
+			contentView = inflater.inflate(layoutId, null, false);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+		}
+		AndroidAutowire.autowireFragment(this, BaseAutowireActivity.class, contentView, this);
+		return contentView;
+	}
+	
+	/**
+	 * Set the content view, call {@link #afterAutowire(Bundle)}, and restore the state of the views, which
+	 * {@code onRestoreInstanceState()} could not restore before they were attached. Called on the main thread.
+	 * @param contentView The autowired layout, or null if it must be inflated here
+	 */
+	private void attachLayout(int layoutId, View contentView, Bundle savedInstanceState){
+		if(destroyed || isFinishing()){
+			return;
+		}
+		if(contentView == null){
+			setContentView(layoutId);
+		}else{
+			setContentViewTraced(contentView);
+		}
+		callAfterAutowire(savedInstanceState);
+		Bundle hierarchyState = savedInstanceState != null ? savedInstanceState.getBundle(WINDOW_HIERARCHY_TAG) : null;
+		if(hierarchyState != null){
+			getWindow().restoreHierarchyState(hierarchyState);
+		}
+	}
+	
+	/**
+	 * Set a content view that has already been inflated. Unlike {@link #setContentView(int)}, this does not autowire.
+	 */
+	private void setContentViewTraced(View contentView){
+		boolean traced = AutowireTrace.begin(AutowireTrace.SET_CONTENT_VIEW, this);
+		try {
+			setContentView(contentView);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+		}
+	}
+	
+	private void callAfterAutowire(Bundle savedInstanceState){
+		boolean traced = AutowireTrace.begin(AutowireTrace.AFTER_AUTOWIRE, this);
+		try {
+			afterAutowire(savedInstanceState);
+		} finally {
+			if(traced){
+				AutowireTrace.end();
+			}
+		}
+	}
+	
 	/**
 	 * This method will be called after views are autowired by AndroidAutowire
 	 * and after the layout is created. <strong>This method will only be called when the
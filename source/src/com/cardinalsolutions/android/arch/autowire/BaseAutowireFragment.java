@@ -0,0 +1,58 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.app.Fragment;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Provided base Fragment for use of AndroidAutowire annotations with the core {@code android.app.Fragment} (API 11).
+ * <br /><br />
+ * The {@link AndroidLayout} layout is inflated as the content view, {@link AndroidView} fields are autowired, and
+ * {@link SaveInstance} fields are restored and saved. The views are released in {@code onDestroyView()}, so a Fragment
+ * on the back stack does not hold on to its old view hierarchy. For Support Library fragments, use
+ * {@link AutowireFragmentDelegate} in your own base Fragment.
+ */
+public abstract class BaseAutowireFragment extends Fragment {
+
+	private final AutowireFragmentDelegate autowire = new AutowireFragmentDelegate(this, BaseAutowireFragment.class, false);
+
+	@Override
+	public void onCreate(Bundle savedInstanceState){
+		super.onCreate(savedInstanceState);
+		autowire.onCreate(savedInstanceState);
+	}
+
+	@Override
+	public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState){
+		View contentView = autowire.onCreateView(inflater, container, savedInstanceState);
+		//If this fragment is not annotated with AndroidLayout, do nothing
+		if(contentView == null){
+			return super.onCreateView(inflater, container, savedInstanceState);
+		}
+		afterAutowire(savedInstanceState);
+		return contentView;
+	}
+
+	@Override
+	public void onSaveInstanceState(Bundle outState){
+		super.onSaveInstanceState(outState);
+		autowire.onSaveInstanceState(outState);
+	}
+
+	@Override
+	public void onDestroyView(){
+		super.onDestroyView();
+		autowire.onDestroyView();
+	}
+
+	/**
+	 * This method will be called after views are autowired by AndroidAutowire
+	 * and after the layout is inflated. <strong>This method will only be called when the
+	 * {@link AndroidLayout} annotation is used</strong> to load the layout resource for the Fragment.
+	 * <br /><br />
+	 * Fragment set up that is usually done in {@code onCreateView()} can be done in this method instead.
+	 */
+	protected abstract void afterAutowire(Bundle savedInstanceState);
+}
@@ -0,0 +1,334 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes the values of a {@link SaveStrategy} to the binary state of a target, see {@link BinaryState}. Only the
+ * strategies for primitives, Strings and their arrays have a codec.
+ */
+abstract class BinaryCodec {
+
+	static final BinaryCodec BOOLEAN = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeBoolean((Boolean) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readBoolean();
+		}
+	};
+
+	static final BinaryCodec BYTE = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeByte((Byte) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readByte();
+		}
+	};
+
+	static final BinaryCodec CHAR = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeChar((Character) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readChar();
+		}
+	};
+
+	static final BinaryCodec SHORT = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeShort((Short) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readShort();
+		}
+	};
+
+	static final BinaryCodec INT = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeInt((Integer) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readInt();
+		}
+	};
+
+	static final BinaryCodec LONG = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeLong((Long) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readLong();
+		}
+	};
+
+	static final BinaryCodec FLOAT = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeFloat((Float) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readFloat();
+		}
+	};
+
+	static final BinaryCodec DOUBLE = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			out.writeDouble((Double) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return in.readDouble();
+		}
+	};
+
+	static final BinaryCodec STRING = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			writeString(out, (String) value);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			return readString(in);
+		}
+	};
+
+	static final BinaryCodec BOOLEAN_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			boolean[] array = (boolean[]) value;
+			out.writeInt(array.length);
+			for(boolean element : array){
+				out.writeBoolean(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			boolean[] array = new boolean[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readBoolean();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec BYTE_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			byte[] array = (byte[]) value;
+			out.writeInt(array.length);
+			out.write(array);
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			byte[] array = new byte[in.readInt()];
+			in.readFully(array);
+			return array;
+		}
+	};
+
+	static final BinaryCodec CHAR_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			char[] array = (char[]) value;
+			out.writeInt(array.length);
+			for(char element : array){
+				out.writeChar(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			char[] array = new char[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readChar();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec SHORT_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			short[] array = (short[]) value;
+			out.writeInt(array.length);
+			for(short element : array){
+				out.writeShort(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			short[] array = new short[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readShort();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec INT_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			int[] array = (int[]) value;
+			out.writeInt(array.length);
+			for(int element : array){
+				out.writeInt(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			int[] array = new int[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readInt();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec LONG_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			long[] array = (long[]) value;
+			out.writeInt(array.length);
+			for(long element : array){
+				out.writeLong(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			long[] array = new long[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readLong();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec FLOAT_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			float[] array = (float[]) value;
+			out.writeInt(array.length);
+			for(float element : array){
+				out.writeFloat(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			float[] array = new float[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readFloat();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec DOUBLE_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			double[] array = (double[]) value;
+			out.writeInt(array.length);
+			for(double element : array){
+				out.writeDouble(element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			double[] array = new double[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = in.readDouble();
+			}
+			return array;
+		}
+	};
+
+	static final BinaryCodec STRING_ARRAY = new BinaryCodec(){
+		@Override
+		void write(DataOutput out, Object value) throws IOException{
+			String[] array = (String[]) value;
+			out.writeInt(array.length);
+			for(String element : array){
+				writeString(out, element);
+			}
+		}
+
+		@Override
+		Object read(DataInput in) throws IOException{
+			String[] array = new String[in.readInt()];
+			for(int i = 0; i < array.length; i++){
+				array[i] = readString(in);
+			}
+			return array;
+		}
+	};
+
+	private BinaryCodec(){
+	}
+
+	/**
+	 * Write a non-null value.
+	 */
+	abstract void write(DataOutput out, Object value) throws IOException;
+
+	/**
+	 * Read a value written by {@link #write(DataOutput, Object)}.
+	 */
+	abstract Object read(DataInput in) throws IOException;
+
+	/**
+	 * Strings are written as their length, or -1 for null, followed by their UTF-16 chars, as they are in a Parcel.
+	 * Unlike {@code writeUTF()}, there is no limit on the length.
+	 */
+	static void writeString(DataOutput out, String value) throws IOException{
+		if(value == null){
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(value.length());
+		out.writeChars(value);
+	}
+
+	static String readString(DataInput in) throws IOException{
+		int length = in.readInt();
+		if(length < 0){
+			return null;
+		}
+		char[] chars = new char[length];
+		for(int i = 0; i < length; i++){
+			chars[i] = in.readChar();
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,179 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import android.os.Bundle;
+import android.util.Log;
+
+/**
+ * Saves and restores the {@link SaveInstance} fields of a target as a single {@code byte[]} Bundle entry, instead of
+ * one entry for each field. Used when {@link AndroidAutowire#setBinaryBundleState(boolean)} is turned on.
+ * <br /><br />
+ * The state starts with a version byte. Then, for each field of each class in the chain, from the target's class up
+ * to the base class, there is a tag byte: 0 for null, or the ordinal of the field's {@link SaveStrategy} plus one,
+ * followed by the value written by its {@link BinaryCodec}. Strings and arrays are prefixed with their length. The
+ * tag is checked when the state is read, so state written for a different version of the class is ignored rather
+ * than read into the wrong fields.
+ * <br /><br />
+ * Fields whose strategy has no codec (Parcelable, Serializable, and fields of types that are only known at
+ * runtime), fields saved by a {@link Bundler}, and the fields of classes with a generated {@link AutowireBinder},
+ * are saved as Bundle entries of their own, as they are without binary state. If the Bundle has no binary state, for
+ * example because it was saved before binary state was turned on, the fields are read from their own entries.
+ */
+final class BinaryState {
+
+	static final int VERSION = 1;
+
+	/** Appended to the name of the target's class to make the Bundle key. Not a valid character in a field name. */
+	static final String KEY_SUFFIX = ":autowire";
+
+	private static final int NULL_TAG = 0;
+
+	private BinaryState(){
+	}
+
+	static void save(Bundle bundle, Object target, Class<?> baseClass, AutowireMetrics metrics){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		boolean compact = AndroidAutowire.isCompactBundleKeys();
+		try {
+			out.writeByte(VERSION);
+			Class<?> clazz = target.getClass();
+			while(baseClass.isAssignableFrom(clazz)){
+				AutowirePlan plan = AutowirePlan.forClass(clazz);
+				if(plan.binder != null){
+					plan.binder.saveFields(target, bundle);
+					if(metrics != null){
+						metrics.fieldCount += plan.binder.getSaveFieldCount();
+					}
+					clazz = clazz.getSuperclass();
+					continue;
+				}
+				for(AutowirePlan.SaveBinding binding : plan.saveBindings){
+					long start = metrics != null ? metrics.fieldStart() : 0;
+					Object value = null;
+					try {
+						value = binding.field.get(target);
+					} catch (Exception e){
+						//Saved as null, so the fields after it are still in the right place
+						Log.w("AndroidAutowire", "The field \"" + binding.field.getName() + "\" was not added to the bundle");
+					}
+					if(binding.codec != null){
+						if(value == null){
+							out.writeByte(NULL_TAG);
+						}else{
+							out.writeByte(tag(binding.strategy));
+							binding.codec.write(out, value);
+						}
+					}else{
+						String key = AutowirePlan.saveKey(bundle, binding.key, binding.compactKey, compact);
+						if(value != null){
+							binding.put(bundle, key, value);
+						}
+						AutowirePlan.reserveKey(bundle, key, compact);
+					}
+					if(metrics != null){
+						metrics.fieldDone(binding.field, start);
+					}
+				}
+				clazz = clazz.getSuperclass();
+			}
+			out.flush();
+		} catch (IOException e){
+			//Not thrown when writing to a byte array
+			throw new AndroidAutowireException("Could not write the saved state of " + target.getClass().getName() + ". " + e.getMessage());
+		}
+		bundle.putByteArray(AutowirePlan.forClass(target.getClass()).stateKey, bytes.toByteArray());
+	}
+
+	static void load(Bundle bundle, Object target, Class<?> baseClass, AutowireMetrics metrics){
+		DataInputStream in = open(bundle, target);
+		if(metrics != null){
+			metrics.keyRead(AutowirePlan.forClass(target.getClass()).stateKey);
+		}
+		boolean compact = AndroidAutowire.isCompactBundleKeys();
+		Class<?> clazz = target.getClass();
+		while(baseClass.isAssignableFrom(clazz)){
+			AutowirePlan plan = AutowirePlan.forClass(clazz);
+			if(plan.binder != null){
+				plan.binder.loadFields(target, bundle);
+				if(metrics != null){
+					metrics.fieldCount += plan.binder.getSaveFieldCount();
+				}
+				clazz = clazz.getSuperclass();
+				continue;
+			}
+			for(AutowirePlan.SaveBinding binding : plan.saveBindings){
+				long start = metrics != null ? metrics.fieldStart() : 0;
+				if(binding.codec != null && in != null){
+					try {
+						int tag = in.readUnsignedByte();
+						if(tag == tag(binding.strategy)){
+							binding.field.set(target, binding.codec.read(in));
+						}else if(tag != NULL_TAG){
+							Log.w("AndroidAutowire", "The saved state of " + target.getClass().getName() + " does not match its fields and was not restored");
+							in = null;
+						}
+					} catch (IOException e){
+						Log.w("AndroidAutowire", "The saved state of " + target.getClass().getName() + " could not be read");
+						in = null;
+					} catch (Exception e){
+						//Could not set this field. The value has been read, so carry on with the next field.
+						Log.w("AndroidAutowire", "The field \"" + binding.field.getName() + "\" was not retrieved from the bundle");
+					}
+				}else{
+					String key = AutowirePlan.loadKey(bundle, binding.key, binding.compactKey, compact);
+					if(metrics != null){
+						metrics.keyRead(key);
+					}
+					loadEntry(bundle, target, binding, key);
+				}
+				if(metrics != null){
+					metrics.fieldDone(binding.field, start);
+				}
+			}
+			clazz = clazz.getSuperclass();
+		}
+	}
+
+	/**
+	 * @return a stream over the binary state in the Bundle, positioned after the version, or null if there is none
+	 */
+	private static DataInputStream open(Bundle bundle, Object target){
+		byte[] state = bundle.getByteArray(AutowirePlan.forClass(target.getClass()).stateKey);
+		if(state == null || state.length == 0){
+			return null;
+		}
+		if(state[0] != VERSION){
+			Log.w("AndroidAutowire", "The saved state of " + target.getClass().getName() + " has an unknown version and was not restored");
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(state));
+		try {
+			in.skipBytes(1);
+		} catch (IOException e){
+			return null;
+		}
+		return in;
+	}
+
+	private static void loadEntry(Bundle bundle, Object target, AutowirePlan.SaveBinding binding, String key){
+		try {
+			Object fieldVal = binding.get(bundle, key);
+			if(fieldVal != null){
+				binding.field.set(target, fieldVal);
+			}
+		} catch (Exception e){
+			//Could not get this field from the bundle.
+			Log.w("AndroidAutowire", "The field \"" + binding.field.getName() + "\" was not retrieved from the bundle");
+		}
+	}
+
+	private static int tag(SaveStrategy strategy){
+		return strategy.ordinal() + 1;
+	}
+}
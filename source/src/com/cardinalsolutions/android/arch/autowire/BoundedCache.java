@@ -0,0 +1,169 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent cache with a maximum size, evicting with the clock (second chance) policy.
+ * <br /><br />
+ * Reads do not lock: each entry has a referenced bit that is set when it is read. When the cache grows past its
+ * maximum size, a clock hand sweeps the entries, clearing the bit of entries that were read since the last sweep
+ * and evicting the first entries that were not. Only one thread evicts at a time; other threads do not wait for it.
+ * Hits, misses and evictions are counted so the maximum sizes can be tuned.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+final class BoundedCache<K, V> {
+
+	private final String name;
+	private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<K, Node<V>>();
+	private volatile int maxSize;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	private final AtomicBoolean evicting = new AtomicBoolean();
+	/** The clock hand. Only used by the thread that set {@link #evicting} */
+	private Iterator<Map.Entry<K, Node<V>>> hand;
+
+	BoundedCache(String name, int maxSize){
+		this.name = name;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the cached value, or null if there is none. Counted as a hit or a miss.
+	 */
+	V get(K key){
+		Node<V> node = map.get(key);
+		AutowireMetrics metrics = AutowireMetrics.active();
+		if(node == null){
+			misses.incrementAndGet();
+			if(metrics != null){
+				metrics.cacheMisses++;
+			}
+			return null;
+		}
+		hits.incrementAndGet();
+		if(metrics != null){
+			metrics.cacheHits++;
+		}
+		//Avoid writing to the node when the bit is already set
+		if(!node.referenced){
+			node.referenced = true;
+		}
+		return node.value;
+	}
+
+	/**
+	 * @return true if the key is cached. Not counted as a hit or a miss.
+	 */
+	boolean containsKey(K key){
+		return map.containsKey(key);
+	}
+
+	void put(K key, V value){
+		map.put(key, new Node<V>(value));
+		evictTo(maxSize);
+	}
+
+	/**
+	 * @return the value already cached for the key, or null if the value was added
+	 */
+	V putIfAbsent(K key, V value){
+		Node<V> existing = map.putIfAbsent(key, new Node<V>(value));
+		if(existing != null){
+			return existing.value;
+		}
+		evictTo(maxSize);
+		return null;
+	}
+
+	/**
+	 * Remove the key, only if it is still cached with this value.
+	 */
+	void remove(K key, V value){
+		Node<V> node = map.get(key);
+		if(node != null && node.value == value){
+			map.remove(key, node);
+		}
+	}
+
+	void clear(){
+		map.clear();
+	}
+
+	int size(){
+		return map.size();
+	}
+
+	int getMaxSize(){
+		return maxSize;
+	}
+
+	/**
+	 * Set the maximum size, evicting entries if the cache is now too large.
+	 */
+	void setMaxSize(int maxSize){
+		if(maxSize < 0){
+			throw new IllegalArgumentException("The maximum size of the " + name + " cache can not be negative");
+		}
+		this.maxSize = maxSize;
+		evictTo(maxSize);
+	}
+
+	/**
+	 * Evict entries, least recently read first, until at most {@code size} entries are cached.
+	 * The maximum size is not changed.
+	 */
+	void trimTo(int size){
+		evictTo(size);
+	}
+
+	AutowireCacheStats stats(){
+		return new AutowireCacheStats(name, map.size(), maxSize, hits.get(), misses.get(), evictions.get());
+	}
+
+	private void evictTo(int size){
+		if(map.size() <= size || !evicting.compareAndSet(false, true)){
+			return;
+		}
+		try {
+			//Two turns of the clock are enough to evict every entry: the first clears the bits, the second evicts.
+			//Entries added while sweeping can make this stop early, the next insert will sweep again.
+			int steps = map.size() * 2 + 1;
+			while(map.size() > size && steps-- > 0){
+				if(hand == null || !hand.hasNext()){
+					hand = map.entrySet().iterator();
+					if(!hand.hasNext()){
+						break;
+					}
+				}
+				Map.Entry<K, Node<V>> entry = hand.next();
+				Node<V> node = entry.getValue();
+				if(node.referenced){
+					node.referenced = false;
+				}else if(map.remove(entry.getKey(), node)){
+					evictions.incrementAndGet();
+				}
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	private static final class Node<V> {
+		final V value;
+		/** Set when the entry is read, cleared by the clock hand. New entries get one turn of the clock. */
+		volatile boolean referenced = true;
+
+		Node(V value){
+			this.value = value;
+		}
+	}
+}
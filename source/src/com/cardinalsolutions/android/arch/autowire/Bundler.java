@@ -0,0 +1,49 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.os.Bundle;
+
+/**
+ * Saves and restores {@link SaveInstance} fields of a type that the Bundle can not hold directly, or can only hold
+ * with Java serialization. A Bundler can write the value with any of the typed Bundle methods, for example as a
+ * {@code byte[]} from a hand written encoder.
+ * <br /><br />
+ * A Bundler is used for a field when it is named by the field's annotation, {@code @SaveInstance(bundler = ...)}, or
+ * when it is registered for the field's declared type with {@link AndroidAutowire#registerBundler(Class, Bundler)}.
+ * Bundlers named by the annotation must have a public no argument constructor; one instance of each is shared by
+ * every field that names it. Bundlers are called from the thread that saves or restores the state, so they should not
+ * keep state of their own.
+ * <pre class="prettyprint">
+ * public class MoneyBundler implements Bundler&lt;Money&gt; {
+ *
+ * 	public void put(Bundle bundle, String key, Money value){
+ * 		bundle.putLongArray(key, new long[]{value.getCents(), value.getCurrencyCode()});
+ * 	}
+ *
+ * 	public Money get(Bundle bundle, String key){
+ * 		long[] saved = bundle.getLongArray(key);
+ * 		return saved == null ? null : new Money(saved[0], saved[1]);
+ * 	}
+ * }
+ * </pre>
+ *
+ * @param <T> The type of the fields saved by this Bundler
+ */
+public interface Bundler<T> {
+
+	/**
+	 * Save a value to the Bundle. Values saved under other keys must start with the given key, so they do not clash
+	 * with other fields.
+	 * @param bundle Bundle to save the value to
+	 * @param key Key of the field
+	 * @param value Value of the field, never null
+	 */
+	void put(Bundle bundle, String key, T value);
+
+	/**
+	 * Restore a value saved by {@link #put(Bundle, String, Object)}.
+	 * @param bundle Bundle with the saved state
+	 * @param key Key of the field
+	 * @return the value, or null if nothing was saved under the key, in which case the field is left unchanged
+	 */
+	T get(Bundle bundle, String key);
+}
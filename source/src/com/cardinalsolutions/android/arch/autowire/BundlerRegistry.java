@@ -0,0 +1,105 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Bundler}s registered for declared types, and the shared instances of Bundlers named by
+ * {@link SaveInstance#bundler()}.
+ * <br /><br />
+ * A field uses the Bundler registered for its declared type. If there is none, it uses the first Bundler, in the
+ * order they were registered, whose type is a superclass or interface of the declared type. What was found is cached
+ * for each declared type, so binding plans and generated binders only pay for the search once.
+ */
+final class BundlerRegistry {
+
+	/** Cached for declared types that have no Bundler, as the cache can not hold null */
+	private static final Bundler<Object> NONE = new Bundler<Object>(){
+		@Override
+		public void put(android.os.Bundle bundle, String key, Object value){
+		}
+
+		@Override
+		public Object get(android.os.Bundle bundle, String key){
+			return null;
+		}
+	};
+
+	/** Guarded by itself */
+	private static final Map<Class<?>, Bundler<?>> REGISTERED = new LinkedHashMap<Class<?>, Bundler<?>>();
+	private static final Map<Class<?>, Bundler<Object>> BY_DECLARED_TYPE = new ConcurrentHashMap<Class<?>, Bundler<Object>>();
+	private static final Map<Class<?>, Bundler<Object>> INSTANCES = new ConcurrentHashMap<Class<?>, Bundler<Object>>();
+
+	private BundlerRegistry(){
+	}
+
+	static <T> void register(Class<T> type, Bundler<T> bundler){
+		synchronized(REGISTERED){
+			if(bundler == null){
+				REGISTERED.remove(type);
+			}else{
+				REGISTERED.put(type, bundler);
+			}
+			BY_DECLARED_TYPE.clear();
+		}
+	}
+
+	/**
+	 * @return the Bundler for fields of the declared type, or null if they are saved by their {@link SaveStrategy}
+	 */
+	static Bundler<Object> forType(Class<?> type){
+		Bundler<Object> bundler = BY_DECLARED_TYPE.get(type);
+		if(bundler == null){
+			bundler = find(type);
+			BY_DECLARED_TYPE.put(type, bundler);
+		}
+		return bundler == NONE ? null : bundler;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Bundler<Object> find(Class<?> type){
+		synchronized(REGISTERED){
+			Bundler<?> bundler = REGISTERED.get(type);
+			if(bundler == null){
+				for(Map.Entry<Class<?>, Bundler<?>> entry : REGISTERED.entrySet()){
+					if(entry.getKey().isAssignableFrom(type)){
+						bundler = entry.getValue();
+						break;
+					}
+				}
+			}
+			return bundler == null ? NONE : (Bundler<Object>) bundler;
+		}
+	}
+
+	/**
+	 * @return the shared instance of a Bundler class named by {@link SaveInstance#bundler()}
+	 */
+	@SuppressWarnings("unchecked")
+	static Bundler<Object> instance(Class<?> bundlerClass){
+		Bundler<Object> bundler = INSTANCES.get(bundlerClass);
+		if(bundler == null){
+			try {
+				bundler = (Bundler<Object>) bundlerClass.getDeclaredConstructor().newInstance();
+			} catch (InvocationTargetException e){
+				//Thrown by the Bundler's constructor
+				Throwable cause = e.getCause();
+				if(cause instanceof RuntimeException){
+					throw (RuntimeException) cause;
+				}
+				if(cause instanceof Error){
+					throw (Error) cause;
+				}
+				throw new AndroidAutowireException("Could not create the Bundler " + bundlerClass.getName() + ". " + cause);
+			} catch (Exception e){
+				throw new AndroidAutowireException("Could not create the Bundler " + bundlerClass.getName()
+						+ ". It must have a public no argument constructor. " + e.getMessage());
+			}
+			//Two threads may create an instance at once. Either can be kept, as Bundlers have no state.
+			INSTANCES.put(bundlerClass, bundler);
+		}
+		return bundler;
+	}
+}
@@ -0,0 +1,134 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import android.content.Context;
+
+/**
+ * Flattened binding plan for a view holder class, used by {@link AndroidAutowire#autowireHolder(Object, android.view.View)}.
+ * <br /><br />
+ * A holder is autowired for every row created by a ListView or RecyclerView adapter, so all of the work for its class
+ * is done once, up front. The {@link AndroidView} fields of every class in the holder's inheritance chain are gathered
+ * into a single array, and the ids of fields found by name are resolved once for the app's package and kept with the
+ * plan. Autowiring a holder is then one {@code findViewById()} and one field write per field, without map lookups,
+ * reflection or allocation, other than the holder given to each {@link LazyView} field.
+ * <br /><br />
+ * Classes in the chain with a generated {@link AutowireBinder} are autowired by their binder.
+ */
+final class HolderPlan {
+
+	static final int DEFAULT_MAX_HOLDERS = 256;
+
+	/**
+	 * Building a plan twice for the same class is harmless, as the plans of each class in the chain are only built
+	 * once by {@link AutowirePlan}. The first plan to be cached is used.
+	 */
+	private static final BoundedCache<Class<?>, HolderPlan> HOLDERS = new BoundedCache<Class<?>, HolderPlan>("holders", DEFAULT_MAX_HOLDERS);
+
+	private static final AutowireBinder<?>[] NO_BINDERS = new AutowireBinder<?>[0];
+
+	/** Binders of the classes in the chain that have one, subclass first */
+	final AutowireBinder<Object>[] binders;
+	/** Views of the classes in the chain without a binder, subclass first */
+	final AutowirePlan.ViewBinding[] viewBindings;
+	final AutowirePlan.ViewBinding[] lazyBindings;
+	/** Ids for the package the holder was last autowired in */
+	private volatile ResolvedIds ids;
+
+	@SuppressWarnings("unchecked")
+	private HolderPlan(List<AutowireBinder<Object>> binders, List<AutowirePlan.ViewBinding> viewBindings, List<AutowirePlan.ViewBinding> lazyBindings){
+		this.binders = (AutowireBinder<Object>[]) binders.toArray(NO_BINDERS);
+		this.viewBindings = viewBindings.toArray(new AutowirePlan.ViewBinding[viewBindings.size()]);
+		this.lazyBindings = lazyBindings.toArray(new AutowirePlan.ViewBinding[lazyBindings.size()]);
+	}
+
+	/**
+	 * Get the plan for a holder class and all of its superclasses, building it if this class has not been seen before.
+	 * @param clazz Class of the holder
+	 * @return binding plan for the holder
+	 */
+	static HolderPlan forClass(Class<?> clazz){
+		HolderPlan plan = HOLDERS.get(clazz);
+		if(plan == null){
+			plan = build(clazz);
+			HolderPlan existing = HOLDERS.putIfAbsent(clazz, plan);
+			if(existing != null){
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * Remove all holder plans.
+	 */
+	static void clear(){
+		HOLDERS.clear();
+	}
+
+	static BoundedCache<?, ?> cache(){
+		return HOLDERS;
+	}
+
+	private static HolderPlan build(Class<?> clazz){
+		List<AutowireBinder<Object>> binders = new ArrayList<AutowireBinder<Object>>();
+		List<AutowirePlan.ViewBinding> views = new ArrayList<AutowirePlan.ViewBinding>();
+		List<AutowirePlan.ViewBinding> lazyViews = new ArrayList<AutowirePlan.ViewBinding>();
+		while(clazz != null && clazz != Object.class){
+			AutowirePlan plan = AutowirePlan.forClass(clazz);
+			if(plan.binder != null){
+				binders.add(plan.binder);
+			}else{
+				views.addAll(Arrays.asList(plan.viewBindings));
+				lazyViews.addAll(Arrays.asList(plan.lazyBindings));
+			}
+			clazz = clazz.getSuperclass();
+		}
+		return new HolderPlan(binders, views, lazyViews);
+	}
+
+	/**
+	 * Get the view ids, in the same order as the bindings, resolving the ids given by name for the context's package
+	 * the first time the holder is autowired in that package.
+	 * @param context Context of the item view
+	 * @return resolved ids
+	 */
+	ResolvedIds resolveIds(Context context){
+		String packageName = context.getPackageName();
+		ResolvedIds current = ids;
+		if(current == null || !current.packageName.equals(packageName)){
+			current = new ResolvedIds(packageName, resolve(context, viewBindings), resolve(context, lazyBindings));
+			ids = current;
+		}
+		return current;
+	}
+
+	private static int[] resolve(Context context, AutowirePlan.ViewBinding[] bindings){
+		int[] resIds = new int[bindings.length];
+		for(int i = 0; i < bindings.length; i++){
+			int resId = bindings[i].resId;
+			if(resId == 0){
+				resId = ResourceIdCache.getIdentifier(context, bindings[i].idName, "id");
+			}
+			resIds[i] = resId;
+		}
+		return resIds;
+	}
+
+	/**
+	 * View ids of a holder plan, resolved for one package.
+	 */
+	static final class ResolvedIds {
+		final String packageName;
+		final int[] viewIds;
+		final int[] lazyIds;
+
+		ResolvedIds(String packageName, int[] viewIds, int[] lazyIds){
+			this.packageName = packageName;
+			this.viewIds = viewIds;
+			this.lazyIds = lazyIds;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.content.Context;
+
+/**
+ * Cache of the layout resource resolved from the {@link AndroidLayout} annotation for each concrete class.
+ * <br /><br />
+ * Finding the layout means walking the superclasses for the annotation and, if the annotation has no value,
+ * looking up the layout by the simple name of the class. The result, including "no layout" (0), is remembered
+ * for each concrete class, so later lookups are a single map access.
+ */
+final class LayoutCache {
+
+	static final int DEFAULT_MAX_LAYOUTS = 256;
+
+	private static final BoundedCache<Class<?>, Entry> LAYOUTS = new BoundedCache<Class<?>, Entry>("layouts", DEFAULT_MAX_LAYOUTS);
+
+	private LayoutCache(){
+	}
+
+	/**
+	 * Get the layout resource for the class, resolving it if the class has not been seen before.
+	 * @param clazz Concrete class of the Activity or Fragment
+	 * @param context Context used to look up the layout by name
+	 * @param baseClass Base class, allowing inheritance of the layout
+	 * @return layout id, or 0 if there is no layout
+	 */
+	static int getLayout(Class<?> clazz, Context context, Class<?> baseClass){
+		Entry entry = LAYOUTS.get(clazz);
+		String packageName = context.getPackageName();
+		//The same class could be resolved against a different base class or package, so check the entry matches
+		if(entry == null || entry.baseClass != baseClass || !entry.packageName.equals(packageName)){
+			//Two threads may resolve the same class at once. They find the same layout, so either entry can be kept.
+			entry = new Entry(baseClass, packageName, resolve(clazz, context, baseClass));
+			LAYOUTS.put(clazz, entry);
+		}
+		return entry.layoutId;
+	}
+
+	/**
+	 * Remove all resolved layouts.
+	 */
+	static void clear(){
+		LAYOUTS.clear();
+	}
+
+	static BoundedCache<Class<?>, ?> cache(){
+		return LAYOUTS;
+	}
+
+	private static int resolve(Class<?> thisClass, Context context, Class<?> baseClass){
+		Class<?> clazz = thisClass;
+		int layoutValue = getLayoutValue(clazz);
+		while(layoutValue == AutowireBinder.NO_LAYOUT && baseClass.isAssignableFrom(clazz.getSuperclass())){
+			clazz = clazz.getSuperclass();
+			layoutValue = getLayoutValue(clazz);
+		}
+		if(layoutValue == AutowireBinder.NO_LAYOUT){
+			return 0;
+		}
+		if(layoutValue != 0){
+			return layoutValue;
+		}
+		return ResourceIdCache.getIdentifier(context, thisClass.getSimpleName(), "layout");
+	}
+
+	private static int getLayoutValue(Class<?> clazz){
+		AutowireBinder<Object> binder = AutowirePlan.forClass(clazz).binder;
+		if(binder != null){
+			return binder.getLayoutResource();
+		}
+		AndroidLayout layoutAnnotation = clazz.getAnnotation(AndroidLayout.class);
+		return layoutAnnotation == null ? AutowireBinder.NO_LAYOUT : layoutAnnotation.value();
+	}
+
+	private static final class Entry {
+		final Class<?> baseClass;
+		final String packageName;
+		final int layoutId;
+
+		Entry(Class<?> baseClass, String packageName, int layoutId){
+			this.baseClass = baseClass;
+			this.packageName = packageName;
+			this.layoutId = layoutId;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.view.LayoutInflater;
+import android.view.View;
+
+/**
+ * Pool of {@link AndroidLayout} layouts inflated ahead of time, keyed by layout id, for the Activities and Fragments
+ * the user returns to often.
+ * <br /><br />
+ * Layouts are added with {@link AndroidAutowire#poolLayouts(Context, Class, Class...)}. The pool keeps one inflated
+ * hierarchy of each, inflating them one at a time when the main thread is idle. When a hierarchy is taken, another is
+ * inflated at the next idle time. Hierarchies are inflated in a {@code MutableContextWrapper} around the application
+ * context, which is switched to the Activity when the hierarchy is taken.
+ * <br /><br />
+ * The pool holds at most {@link #setMaxSize(int) maxSize} hierarchies, and is empty and unused until a size is set.
+ * It is only used from the main thread, so it is not synchronized.
+ */
+final class LayoutPool {
+
+	/** Inflated hierarchies, by layout id */
+	private static final SparseArray<List<PooledLayout>> LAYOUTS = new SparseArray<List<PooledLayout>>();
+	/** Layouts to keep a hierarchy of. Layouts that could not be inflated are set to false. */
+	private static final SparseBooleanArray POOLED_LAYOUTS = new SparseBooleanArray();
+
+	private static Context applicationContext;
+	private static int maxSize;
+	private static int size;
+	private static boolean warmupScheduled;
+
+	/** Inflates one layout each time the main thread is idle, until the pool is full */
+	private static final MessageQueue.IdleHandler WARMUP = new MessageQueue.IdleHandler(){
+		@Override
+		public boolean queueIdle(){
+			warmupScheduled = inflateNext();
+			return warmupScheduled;
+		}
+	};
+
+	private LayoutPool(){
+	}
+
+	/**
+	 * Keep an inflated hierarchy of the layout in the pool, starting when the main thread is next idle.
+	 * @param context Any context of the app; the application context is used to inflate the layouts
+	 * @param layoutId Layout to pool
+	 */
+	static void add(Context context, int layoutId){
+		if(applicationContext == null){
+			applicationContext = context.getApplicationContext();
+		}
+		POOLED_LAYOUTS.put(layoutId, true);
+		scheduleWarmup();
+	}
+
+	/**
+	 * Take an inflated hierarchy of the layout out of the pool.
+	 * @param layoutId Layout to take
+	 * @param context Context of the Activity the hierarchy will be attached to
+	 * @return the root view of the hierarchy, or null if none is pooled
+	 */
+	static View take(int layoutId, Context context){
+		if(!POOLED_LAYOUTS.get(layoutId)){
+			return null;
+		}
+		View view = null;
+		List<PooledLayout> pooled = LAYOUTS.get(layoutId);
+		if(pooled != null && !pooled.isEmpty()){
+			PooledLayout layout = pooled.remove(pooled.size() - 1);
+			size--;
+			layout.context.setBaseContext(context);
+			view = layout.view;
+		}
+		//Replace the hierarchy taken, or the hierarchy that was released under memory pressure
+		scheduleWarmup();
+		return view;
+	}
+
+	/**
+	 * Set the maximum number of hierarchies to keep, releasing hierarchies if there are more.
+	 * @param maxSize Maximum number of hierarchies, 0 to not pool layouts
+	 */
+	static void setMaxSize(int maxSize){
+		if(maxSize < 0){
+			throw new IllegalArgumentException("The maximum size of the layout pool can not be negative");
+		}
+		LayoutPool.maxSize = maxSize;
+		for(int i = 0; i < LAYOUTS.size() && size > maxSize; i++){
+			List<PooledLayout> pooled = LAYOUTS.valueAt(i);
+			while(!pooled.isEmpty() && size > maxSize){
+				pooled.remove(pooled.size() - 1);
+				size--;
+			}
+		}
+		scheduleWarmup();
+	}
+
+	static int size(){
+		return size;
+	}
+
+	/**
+	 * Release every pooled hierarchy. The layouts are pooled again after the next one is taken.
+	 */
+	static void clear(){
+		LAYOUTS.clear();
+		size = 0;
+	}
+
+	private static void scheduleWarmup(){
+		if(warmupScheduled || size >= maxSize || POOLED_LAYOUTS.size() == 0){
+			return;
+		}
+		warmupScheduled = true;
+		Looper.myQueue().addIdleHandler(WARMUP);
+	}
+
+	/**
+	 * Inflate the first pooled layout that has no hierarchy.
+	 * @return true if a layout was inflated, and there may be more to inflate
+	 */
+	private static boolean inflateNext(){
+		for(int i = 0; i < POOLED_LAYOUTS.size() && size < maxSize; i++){
+			int layoutId = POOLED_LAYOUTS.keyAt(i);
+			if(!POOLED_LAYOUTS.get(layoutId)){
+				continue;
+			}
+			List<PooledLayout> pooled = LAYOUTS.get(layoutId);
+			if(pooled == null){
+				pooled = new ArrayList<PooledLayout>(1);
+				LAYOUTS.put(layoutId, pooled);
+			}
+			if(pooled.isEmpty()){
+				inflate(layoutId, pooled);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void inflate(int layoutId, List<PooledLayout> pooled){
+		MutableContextWrapper context = new MutableContextWrapper(applicationContext);
+		try {
+			pooled.add(new PooledLayout(LayoutInflater.from(context).inflate(layoutId, null, false), context));
+			size++;
+		} catch (Throwable e){
+			//Including Errors, such as running out of memory decoding a drawable, which must not crash the idle handler.
+			//It will fail again, so stop pooling it. The Activity or Fragment will inflate it as usual.
+			POOLED_LAYOUTS.put(layoutId, false);
+			Log.w("AndroidAutowire", "Could not inflate layout " + layoutId + " for the layout pool", e);
+		}
+	}
+
+	private static final class PooledLayout {
+		final View view;
+		final MutableContextWrapper context;
+
+		PooledLayout(View view, MutableContextWrapper context){
+			this.view = view;
+			this.context = context;
+		}
+	}
+}
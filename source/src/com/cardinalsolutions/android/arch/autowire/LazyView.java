@@ -0,0 +1,63 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.view.View;
+
+/**
+ * Holder for an {@link AndroidView} that is not looked up until it is first used.
+ * <br /><br />
+ * Views that are only needed in error states or in sections that are rarely expanded still cost a
+ * {@code findViewById()} every time they are autowired. Declare the field as a {@code LazyView} instead,
+ * and the view will be found the first time {@link #get()} is called, then cached.
+ * <br /><br />
+ * <strong>Example Usage:</strong>
+ * <pre class="prettyprint">
+ * 	{@code @AndroidView(R.id.error_text)}
+ * 	private LazyView&lt;TextView&gt; errorText;
+ * 	...
+ * 	errorText.get().setText(message);
+ * </pre>
+ * The {@code required} value of the annotation is checked when {@link #get()} is called, rather than when the
+ * class is autowired.
+ *
+ * @param <T> Type of the view
+ */
+public final class LazyView<T extends View> {
+
+	private final View contentView;
+	private final int resId;
+	private final String fieldName;
+	private final boolean required;
+	private T view;
+
+	LazyView(View contentView, int resId, String fieldName, boolean required){
+		this.contentView = contentView;
+		this.resId = resId;
+		this.fieldName = fieldName;
+		this.required = required;
+	}
+
+	/**
+	 * Get the view, finding it the first time this is called.
+	 * @return the view, or null if the view could not be found and is not required. A view that could not be
+	 * found will be looked for again on the next call.
+	 * @throws AndroidAutowireException if the view is required and could not be found
+	 */
+	@SuppressWarnings("unchecked")
+	public T get() throws AndroidAutowireException{
+		if(view == null){
+			view = (T) contentView.findViewById(resId);
+			if(view == null && required){
+				throw new AndroidAutowireException("No view resource with the id of " + resId + " found. "
+						+" The required field " + fieldName + " could not be autowired" );
+			}
+		}
+		return view;
+	}
+
+	/**
+	 * @return true if the view has already been found
+	 */
+	public boolean isResolved(){
+		return view != null;
+	}
+}
@@ -0,0 +1,81 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.content.Context;
+
+/**
+ * Process wide cache of resource ids looked up by name with {@code Resources.getIdentifier()}.
+ * <br /><br />
+ * {@code getIdentifier()} is a slow string lookup in the resource table, so every id is only looked up once per
+ * package, type and name. Ids that could not be found are cached as 0, so optional views that do not exist
+ * are not looked up again on every autowire.
+ */
+final class ResourceIdCache {
+
+	static final int DEFAULT_MAX_IDS = 2048;
+
+	private static final BoundedCache<Key, Integer> IDS = new BoundedCache<Key, Integer>("resourceIds", DEFAULT_MAX_IDS);
+
+	private ResourceIdCache(){
+	}
+
+	/**
+	 * Get the id of a resource in the context's package.
+	 * @param context Context with the resources
+	 * @param name Name of the resource
+	 * @param type Type of the resource, such as "id" or "layout"
+	 * @return the resource id, or 0 if there is no resource with this name
+	 */
+	static int getIdentifier(Context context, String name, String type){
+		String packageName = context.getPackageName();
+		Key key = new Key(packageName, type, name);
+		Integer id = IDS.get(key);
+		if(id == null){
+			id = context.getResources().getIdentifier(name, type, packageName);
+			AutowireMetrics metrics = AutowireMetrics.active();
+			if(metrics != null){
+				metrics.getIdentifierCalls++;
+			}
+			IDS.put(key, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Remove all cached resource ids.
+	 */
+	static void clear(){
+		IDS.clear();
+	}
+
+	static BoundedCache<?, ?> cache(){
+		return IDS;
+	}
+
+	private static final class Key {
+		private final String packageName;
+		private final String type;
+		private final String name;
+		private final int hashCode;
+
+		Key(String packageName, String type, String name){
+			this.packageName = packageName;
+			this.type = type;
+			this.name = name;
+			this.hashCode = (packageName.hashCode() * 31 + type.hashCode()) * 31 + name.hashCode();
+		}
+
+		@Override
+		public int hashCode(){
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object o){
+			if(!(o instanceof Key)){
+				return false;
+			}
+			Key other = (Key) o;
+			return name.equals(other.name) && type.equals(other.type) && packageName.equals(other.packageName);
+		}
+	}
+}
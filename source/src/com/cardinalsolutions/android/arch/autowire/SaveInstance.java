@@ -18,4 +18,11 @@ import java.lang.annotation.Target;
 @Target({ElementType.FIELD})
 public @interface SaveInstance {
 
+	/**
+	 * {@link Bundler} to save and restore the field with. By default, the field uses the Bundler registered for its
+	 * declared type with {@link AndroidAutowire#registerBundler(Class, Bundler)}, or a Bundle method for its type
+	 * if there is none.
+	 */
+	@SuppressWarnings("rawtypes")
+	Class<? extends Bundler> bundler() default Bundler.class;
 }
@@ -0,0 +1,187 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import java.io.Serializable;
+import java.lang.reflect.Modifier;
+
+import android.os.Bundle;
+import android.os.Parcelable;
+
+/**
+ * How a {@link SaveInstance} field is written to and read from the Bundle.
+ * <br /><br />
+ * The strategy is chosen once from the declared type of the field. Primitives, Strings, and their arrays use the
+ * typed Bundle methods instead of {@code putSerializable()}, so they are not written with Java serialization
+ * when the Bundle is parceled. Parcelable is preferred over Serializable.
+ * <br /><br />
+ * The same types can also be written to the single binary state of a target with their {@link BinaryCodec}, see
+ * {@link AndroidAutowire#setBinaryBundleState(boolean)}. Parcelable and Serializable values have no codec, and are
+ * always saved as Bundle entries of their own.
+ */
+enum SaveStrategy {
+
+	BOOLEAN(BinaryCodec.BOOLEAN) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putBoolean(key, (Boolean) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getBoolean(key); }
+	},
+	BYTE(BinaryCodec.BYTE) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putByte(key, (Byte) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getByte(key); }
+	},
+	CHAR(BinaryCodec.CHAR) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putChar(key, (Character) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getChar(key); }
+	},
+	SHORT(BinaryCodec.SHORT) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putShort(key, (Short) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getShort(key); }
+	},
+	INT(BinaryCodec.INT) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putInt(key, (Integer) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getInt(key); }
+	},
+	LONG(BinaryCodec.LONG) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putLong(key, (Long) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getLong(key); }
+	},
+	FLOAT(BinaryCodec.FLOAT) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putFloat(key, (Float) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getFloat(key); }
+	},
+	DOUBLE(BinaryCodec.DOUBLE) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putDouble(key, (Double) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getDouble(key); }
+	},
+	STRING(BinaryCodec.STRING) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putString(key, (String) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getString(key); }
+	},
+	BOOLEAN_ARRAY(BinaryCodec.BOOLEAN_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putBooleanArray(key, (boolean[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getBooleanArray(key); }
+	},
+	BYTE_ARRAY(BinaryCodec.BYTE_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putByteArray(key, (byte[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getByteArray(key); }
+	},
+	CHAR_ARRAY(BinaryCodec.CHAR_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putCharArray(key, (char[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getCharArray(key); }
+	},
+	SHORT_ARRAY(BinaryCodec.SHORT_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putShortArray(key, (short[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getShortArray(key); }
+	},
+	INT_ARRAY(BinaryCodec.INT_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putIntArray(key, (int[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getIntArray(key); }
+	},
+	LONG_ARRAY(BinaryCodec.LONG_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putLongArray(key, (long[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getLongArray(key); }
+	},
+	FLOAT_ARRAY(BinaryCodec.FLOAT_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putFloatArray(key, (float[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getFloatArray(key); }
+	},
+	DOUBLE_ARRAY(BinaryCodec.DOUBLE_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putDoubleArray(key, (double[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getDoubleArray(key); }
+	},
+	STRING_ARRAY(BinaryCodec.STRING_ARRAY) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putStringArray(key, (String[]) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getStringArray(key); }
+	},
+	PARCELABLE(null) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putParcelable(key, (Parcelable) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getParcelable(key); }
+	},
+	SERIALIZABLE(null) {
+		@Override void put(Bundle bundle, String key, Object value){ bundle.putSerializable(key, (Serializable) value); }
+		@Override Object get(Bundle bundle, String key){ return bundle.getSerializable(key); }
+	},
+	/**
+	 * The declared type does not tell us how to save the value (for example, it is an interface),
+	 * so check the value itself. Values that are neither Parcelable nor Serializable are not saved.
+	 */
+	DYNAMIC(null) {
+		@Override void put(Bundle bundle, String key, Object value){
+			if(value instanceof Parcelable){
+				bundle.putParcelable(key, (Parcelable) value);
+			}else if(value instanceof Serializable){
+				bundle.putSerializable(key, (Serializable) value);
+			}
+		}
+		@Override Object get(Bundle bundle, String key){ return bundle.get(key); }
+	};
+
+	/**
+	 * Writes values to the binary state of a target, see {@link BinaryState}, or null if they must be saved as
+	 * Bundle entries of their own.
+	 */
+	final BinaryCodec codec;
+
+	private SaveStrategy(BinaryCodec codec){
+		this.codec = codec;
+	}
+
+	/**
+	 * Put a non-null value in the Bundle.
+	 */
+	abstract void put(Bundle bundle, String key, Object value);
+
+	/**
+	 * Get a value from the Bundle. Only called when the Bundle contains the key.
+	 */
+	abstract Object get(Bundle bundle, String key);
+
+	/**
+	 * Choose the strategy for a field.
+	 * @param type Declared type of the field
+	 * @return strategy for saving and loading the field
+	 */
+	static SaveStrategy forType(Class<?> type){
+		if(type == boolean.class || type == Boolean.class){
+			return BOOLEAN;
+		}else if(type == byte.class || type == Byte.class){
+			return BYTE;
+		}else if(type == char.class || type == Character.class){
+			return CHAR;
+		}else if(type == short.class || type == Short.class){
+			return SHORT;
+		}else if(type == int.class || type == Integer.class){
+			return INT;
+		}else if(type == long.class || type == Long.class){
+			return LONG;
+		}else if(type == float.class || type == Float.class){
+			return FLOAT;
+		}else if(type == double.class || type == Double.class){
+			return DOUBLE;
+		}else if(type == String.class){
+			return STRING;
+		}else if(type == boolean[].class){
+			return BOOLEAN_ARRAY;
+		}else if(type == byte[].class){
+			return BYTE_ARRAY;
+		}else if(type == char[].class){
+			return CHAR_ARRAY;
+		}else if(type == short[].class){
+			return SHORT_ARRAY;
+		}else if(type == int[].class){
+			return INT_ARRAY;
+		}else if(type == long[].class){
+			return LONG_ARRAY;
+		}else if(type == float[].class){
+			return FLOAT_ARRAY;
+		}else if(type == double[].class){
+			return DOUBLE_ARRAY;
+		}else if(type == String[].class){
+			return STRING_ARRAY;
+		}else if(Parcelable.class.isAssignableFrom(type)){
+			return PARCELABLE;
+		}else if(Serializable.class.isAssignableFrom(type) && Modifier.isFinal(type.getModifiers())){
+			//A subclass of a non-final type could also be Parcelable, so only final types are known to be Serializable
+			return SERIALIZABLE;
+		}
+		return DYNAMIC;
+	}
+}
@@ -0,0 +1,48 @@
+package com.cardinalsolutions.android.arch.autowire;
+
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Finds many views in a view hierarchy with a single walk of the hierarchy.
+ * <br /><br />
+ * Each call to {@code findViewById()} is a depth first search of the whole hierarchy. When many views are
+ * autowired from the same content view, it is faster to walk the hierarchy once and collect every view that
+ * is needed. Views are visited in the same order as {@code findViewById()}, so if an id is used more than once,
+ * the same view is found.
+ */
+final class ViewIndex {
+
+	private ViewIndex(){
+	}
+
+	/**
+	 * Walk the hierarchy once and find the views with the given ids.
+	 * @param root Root of the view hierarchy
+	 * @param ids The ids of the views to find
+	 * @return map of id to view. Ids that were not found in the hierarchy are not in the map.
+	 */
+	static SparseArray<View> build(View root, SparseBooleanArray ids){
+		SparseArray<View> views = new SparseArray<View>(ids.size());
+		if(ids.size() > 0){
+			collect(root, ids, views);
+		}
+		return views;
+	}
+
+	private static void collect(View view, SparseBooleanArray ids, SparseArray<View> views){
+		int id = view.getId();
+		if(id != View.NO_ID && ids.get(id) && views.indexOfKey(id) < 0){
+			views.put(id, view);
+		}
+		if(view instanceof ViewGroup){
+			ViewGroup group = (ViewGroup) view;
+			int count = group.getChildCount();
+			for(int i = 0; i < count && views.size() < ids.size(); i++){
+				collect(group.getChildAt(i), ids, views);
+			}
+		}
+	}
+}